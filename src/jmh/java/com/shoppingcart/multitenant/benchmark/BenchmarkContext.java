@@ -0,0 +1,133 @@
+package com.shoppingcart.multitenant.benchmark;
+
+import com.shoppingcart.multitenant.config.JpaConfig;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantFanOutExecutor;
+import com.shoppingcart.multitenant.config.TenantFanOutProperties;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.config.TenantRegistryProperties;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal application context for the benchmarks: the real services and repositories, and the
+ * application's {@link JpaConfig} session factory with its JDBC batching and second-level cache, on a
+ * single embedded H2 database in MySQL mode. It leaves out the web layer, the tenant routing data
+ * source, the sample data loader and the nightly cart cleanup.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@Import(JpaConfig.class)
+@ComponentScan("com.shoppingcart.multitenant.service")
+public class BenchmarkContext {
+
+    public static final String TENANT = "tenant1";
+
+    public static final int PRODUCTS = 100;
+
+    public static final String PROMOTION_CODE = "BENCH10";
+
+    @Bean
+    public TenantRegistry tenantRegistry() {
+        return new TenantRegistry(Map.of(), new TenantRegistryProperties());
+    }
+
+    /**
+     * Stands in for the tenant routing data source that {@link JpaConfig} builds on, with one
+     * database for every tenant.
+     */
+    @Bean
+    public DataSource routingDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public TenantFanOutExecutor tenantFanOutExecutor(TenantRegistry tenantRegistry) {
+        return new TenantFanOutExecutor(tenantRegistry, new TenantFanOutProperties());
+    }
+
+    /**
+     * Starts a context on a fresh in-memory database named after the benchmark; {@code properties}
+     * are further {@code --name=value} arguments.
+     */
+    public static ConfigurableApplicationContext start(String database, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--spring.config.name=benchmark",
+            "--spring.main.web-application-type=none",
+            "--spring.main.banner-mode=off",
+            "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.open-in-view=false",
+            "--carts.cleanup.enabled=false",
+            "--logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(BenchmarkContext.class)
+            .logStartupInfo(false)
+            .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Seeds {@link #PRODUCTS} products with a volume and a VIP price tier each, and one active
+     * percentage promotion.
+     *
+     * @return the ids of the seeded products
+     */
+    public static List<Long> seed(ConfigurableApplicationContext context) {
+        TenantContext.setCurrentTenant(TENANT);
+        ProductRepository products = context.getBean(ProductRepository.class);
+        PriceRepository prices = context.getBean(PriceRepository.class);
+        PromotionRepository promotions = context.getBean(PromotionRepository.class);
+
+        List<Long> productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("BENCH-" + i);
+            product.setBasePrice(new BigDecimal("19.99"));
+            product.setStockQuantity(Integer.MAX_VALUE);
+            product = products.save(product);
+            productIds.add(product.getId());
+
+            prices.save(price(product, "17.99", null, 10));
+            prices.save(price(product, "15.99", "VIP", 1));
+        }
+
+        Promotion promotion = new Promotion();
+        promotion.setName("Benchmark");
+        promotion.setCode(PROMOTION_CODE);
+        promotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
+        promotion.setDiscountValue(new BigDecimal("10"));
+        promotion.setMaxDiscountAmount(new BigDecimal("50.00"));
+        promotion.setValidFrom(LocalDateTime.now().minusDays(1));
+        promotion.setValidTo(LocalDateTime.now().plusDays(30));
+        promotions.save(promotion);
+        return productIds;
+    }
+
+    private static Price price(Product product, String amount, String customerGroup, int minQuantity) {
+        Price price = new Price();
+        price.setProduct(product);
+        price.setPrice(new BigDecimal(amount));
+        price.setCustomerGroup(customerGroup);
+        price.setMinQuantity(minQuantity);
+        return price;
+    }
+}
@@ -0,0 +1,79 @@
+package com.shoppingcart.multitenant.benchmark;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart write paths against H2: adding an item, and changing a quantity, which reprices the line and
+ * recalculates the cart with its promotion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    private static final String SESSION = "bench-session";
+
+    private ConfigurableApplicationContext context;
+
+    private CartService cartService;
+
+    private List<Long> productIds;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start("cart_benchmark");
+        productIds = BenchmarkContext.seed(context);
+        cartService = context.getBean(CartService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCart() {
+        TenantContext.setCurrentTenant(BenchmarkContext.TENANT);
+        cartService.clearCart(SESSION);
+        for (Long productId : productIds.subList(0, 10)) {
+            cartService.addItemToCart(SESSION, productId, 1, null);
+        }
+        cartService.applyPromotion(SESSION, BenchmarkContext.PROMOTION_CODE);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public Cart addItemToCart() {
+        Long productId = productIds.get(next++ % productIds.size());
+        return cartService.addItemToCart(SESSION, productId, 1, null);
+    }
+
+    @Benchmark
+    public Cart recalculateCart() {
+        int quantity = (next++ & 1) + 1;
+        return cartService.updateCartItem(SESSION, productIds.get(0), quantity, null);
+    }
+}
@@ -0,0 +1,186 @@
+package com.shoppingcart.multitenant.benchmark;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.model.CartItem;
+import com.shoppingcart.multitenant.repository.CartRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a cart with many items, with Hibernate JDBC batching off ({@code batchSize=1}) and on:
+ * inserting a new cart with its items, and changing the quantity of every item of a stored cart.
+ *
+ * <p>The context runs the application's session factory, so ids come from the pooled per-tenant
+ * generators and {@code batchSize} overrides its JDBC batch size, which is checked at startup. The
+ * JDBC statements prepared, one per database round trip, are reported from Hibernate's statistics as
+ * the {@link Statements} counters. Against H2 a round trip is cheap, so the latency gain measured here
+ * is a lower bound for a networked MySQL server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartWriteBenchmark {
+
+    private static final String SESSION = "bench-session";
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"10", "50"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    private CartRepository cartRepository;
+
+    private ProductRepository productRepository;
+
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private List<Long> productIds;
+
+    private Long cartId;
+
+    private int next;
+
+    /**
+     * Statements prepared and carts saved in an iteration; their ratio is the number of round trips
+     * per save.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+
+        public long statements;
+
+        public long saves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            saves = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start("cart_write_benchmark",
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+            "--spring.jpa.properties.hibernate.order_inserts=true",
+            "--spring.jpa.properties.hibernate.order_updates=true");
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        int effectiveBatchSize = sessionFactory.getSessionFactoryOptions().getJdbcBatchSize();
+        if (effectiveBatchSize != batchSize) {
+            throw new IllegalStateException("Session factory batches " + effectiveBatchSize
+                + " statements instead of " + batchSize);
+        }
+        productIds = BenchmarkContext.seed(context);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        cartRepository = context.getBean(CartRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        cartId = insertCart(new Statements()).getId();
+    }
+
+    /**
+     * Deletes the carts inserted during the iteration, keeping the one that is updated.
+     */
+    @TearDown(Level.Iteration)
+    public void deleteInsertedCarts() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM CartItem i WHERE i.cart.id <> :id")
+                .setParameter("id", cartId)
+                .executeUpdate();
+            entityManager.createQuery("DELETE FROM Cart c WHERE c.id <> :id")
+                .setParameter("id", cartId)
+                .executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public Cart insertCart(Statements counters) {
+        long before = statistics.getPrepareStatementCount();
+        Cart saved = transactionTemplate.execute(status -> {
+            Cart cart = new Cart();
+            cart.setSessionId(SESSION + "-" + next++);
+            for (int i = 0; i < items; i++) {
+                CartItem item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(productRepository.getReferenceById(productIds.get(i % productIds.size())));
+                item.setQuantity(1);
+                item.setUnitPrice(new BigDecimal("19.99"));
+                item.setTotalPrice(new BigDecimal("19.99"));
+                cart.getItems().add(item);
+            }
+            return cartRepository.save(cart);
+        });
+        count(counters, before);
+        return saved;
+    }
+
+    @Benchmark
+    public Cart updateCartItems(Statements counters) {
+        int quantity = (next++ & 1) + 2;
+        long before = statistics.getPrepareStatementCount();
+        Cart saved = transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findById(cartId).orElseThrow();
+            BigDecimal total = BigDecimal.ZERO;
+            for (CartItem item : cart.getItems()) {
+                item.setQuantity(quantity);
+                item.setTotalPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
+                total = total.add(item.getTotalPrice());
+            }
+            cart.setSubtotal(total);
+            cart.setTotalAmount(total);
+            return cart;
+        });
+        count(counters, before);
+        return saved;
+    }
+
+    private void count(Statements counters, long before) {
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.saves++;
+    }
+}
@@ -0,0 +1,87 @@
+package com.shoppingcart.multitenant.benchmark;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import com.shoppingcart.multitenant.service.PriceService;
+import com.shoppingcart.multitenant.service.PromotionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price and discount lookups as the cart performs them, through the service proxies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final BigDecimal ORDER_AMOUNT = new BigDecimal("249.90");
+
+    private ConfigurableApplicationContext context;
+
+    private PriceService priceService;
+
+    private PromotionService promotionService;
+
+    private List<Long> productIds;
+
+    private Promotion promotion;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start("pricing_benchmark");
+        productIds = BenchmarkContext.seed(context);
+        priceService = context.getBean(PriceService.class);
+        promotionService = context.getBean(PromotionService.class);
+        promotion = context.getBean(PromotionRepository.class)
+            .findByCodeAndActiveTrue(BenchmarkContext.PROMOTION_CODE).orElseThrow();
+    }
+
+    @Setup(Level.Iteration)
+    public void setTenant() {
+        TenantContext.setCurrentTenant(BenchmarkContext.TENANT);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public BigDecimal getEffectivePrice() {
+        int i = next++;
+        return priceService.getEffectivePrice(productIds.get(i % productIds.size()), null, i % 20 + 1);
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscount() {
+        return promotionService.calculateDiscount(promotion, ORDER_AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscountById() {
+        return promotionService.calculateDiscountById(promotion.getId(), ORDER_AMOUNT);
+    }
+}
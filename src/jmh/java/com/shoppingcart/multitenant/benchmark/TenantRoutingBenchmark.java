@@ -0,0 +1,70 @@
+package com.shoppingcart.multitenant.benchmark;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.config.TenantRegistryProperties;
+import com.shoppingcart.multitenant.config.TenantRoutingDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup key resolution done by {@link TenantRoutingDataSource} on every connection checkout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantRoutingBenchmark {
+
+    @Param({"tenant1", ""})
+    private String tenant;
+
+    private LookupKeyDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new LookupKeyDataSource(new TenantRegistry(Map.of(), new TenantRegistryProperties()));
+        if (tenant.isEmpty()) {
+            TenantContext.clear();
+        } else {
+            TenantContext.setCurrentTenant(tenant);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public Object determineCurrentLookupKey() {
+        return dataSource.lookupKey();
+    }
+
+    private static class LookupKeyDataSource extends TenantRoutingDataSource {
+
+        LookupKeyDataSource(TenantRegistry tenantRegistry) {
+            super(tenantRegistry);
+        }
+
+        Object lookupKey() {
+            return determineCurrentLookupKey();
+        }
+    }
+}
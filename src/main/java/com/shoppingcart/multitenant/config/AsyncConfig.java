@@ -0,0 +1,33 @@
+package com.shoppingcart.multitenant.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Enables {@code @Async} on Spring Boot's application task executor, which picks up the
+ * {@link TenantAwareTaskDecorator} so that async work keeps the caller's tenant.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean
+    public TaskDecorator tenantAwareTaskDecorator() {
+        return new TenantAwareTaskDecorator();
+    }
+
+    /**
+     * Tenant-propagating {@code CompletableFuture} helpers on the application task executor.
+     */
+    @Bean
+    public TenantAwareExecutor tenantAwareExecutor(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        return new TenantAwareExecutor(executor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.shoppingcart.multitenant.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a tenant's connection pool cannot be opened because the pools already open hold the
+ * whole connection budget and none of them became idle within the tenant's connection timeout.
+ *
+ * <p>The condition is temporary, so requests that fail with it are answered with 503, also when it
+ * reaches the web layer wrapped in a persistence exception.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ConnectionBudgetExhaustedException extends RuntimeException {
+
+    public ConnectionBudgetExhaustedException(String message) {
+        super(message);
+    }
+}
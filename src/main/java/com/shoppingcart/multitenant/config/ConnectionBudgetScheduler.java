@@ -0,0 +1,119 @@
+package com.shoppingcart.multitenant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically redistributes the registry's connection budget across open tenant pools.
+ *
+ * <p>Each pool's demand is sampled as active connections plus threads waiting for one, smoothed
+ * over time. Pools are sized to that demand (plus headroom) between the per-tenant floor and the
+ * tenant's configured {@code maximum-pool-size}; when the total would exceed
+ * {@code multitenancy.registry.max-total-connections}, the connections above the floors are shared
+ * out in proportion to demand.
+ */
+@Component
+@ConditionalOnProperty(prefix = "multitenancy.registry.budget", name = "enabled", havingValue = "true")
+public class ConnectionBudgetScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionBudgetScheduler.class);
+
+    private final Map<String, Double> smoothedDemand = new ConcurrentHashMap<>();
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private TenantRegistryProperties properties;
+
+    @Scheduled(fixedDelayString = "${multitenancy.registry.budget.interval:PT5S}")
+    public void rebalance() {
+        TenantRegistryProperties.Budget budget = properties.getBudget();
+        List<TenantRegistry.PoolUsage> usage = tenantRegistry.getPoolUsage();
+
+        Map<String, Double> demand = new HashMap<>();
+        Map<String, Integer> caps = new HashMap<>();
+        for (TenantRegistry.PoolUsage pool : usage) {
+            double sample = pool.active() + pool.awaiting();
+            double smoothed = smoothedDemand.merge(pool.tenantId(), sample,
+                (previous, latest) -> budget.getSmoothing() * latest + (1 - budget.getSmoothing()) * previous);
+            demand.put(pool.tenantId(), smoothed * budget.getHeadroom());
+            caps.put(pool.tenantId(), pool.maximumPoolSize());
+        }
+        smoothedDemand.keySet().retainAll(demand.keySet());
+
+        Map<String, Integer> targets = allocate(demand, caps, budget.getFloor(), tenantRegistry.getMaxTotalConnections());
+
+        // Shrink first so that the connections they release can fund the pools that grow.
+        List<TenantRegistry.PoolUsage> ordered = new ArrayList<>(usage);
+        ordered.sort(Comparator.comparingInt(pool -> targets.get(pool.tenantId()) - pool.reserved()));
+        for (TenantRegistry.PoolUsage pool : ordered) {
+            int target = targets.get(pool.tenantId());
+            if (target != pool.reserved() && !tenantRegistry.resizePool(pool.tenantId(), target)) {
+                logger.debug("Could not grow pool for tenant {} to {} connections", pool.tenantId(), target);
+            }
+        }
+    }
+
+    /**
+     * Sizes each pool to its demand, clamped to {@code [floor, cap]}, and scales the share above the
+     * floors down proportionally when the sum would exceed {@code ceiling}.
+     */
+    static Map<String, Integer> allocate(Map<String, Double> demand, Map<String, Integer> caps,
+                                         int floor, int ceiling) {
+        Map<String, Integer> floors = new HashMap<>();
+        Map<String, Integer> wanted = new HashMap<>();
+        int totalFloor = 0;
+        int totalWanted = 0;
+        for (Map.Entry<String, Double> entry : demand.entrySet()) {
+            int cap = caps.get(entry.getKey());
+            int tenantFloor = Math.min(floor, cap);
+            int want = Math.max(tenantFloor, Math.min(cap, (int) Math.ceil(entry.getValue())));
+            floors.put(entry.getKey(), tenantFloor);
+            wanted.put(entry.getKey(), want);
+            totalFloor += tenantFloor;
+            totalWanted += want;
+        }
+        if (totalWanted <= ceiling) {
+            return wanted;
+        }
+
+        int spare = Math.max(0, ceiling - totalFloor);
+        int totalExtra = totalWanted - totalFloor;
+        Map<String, Integer> allocation = new HashMap<>();
+        Map<String, Double> remainders = new HashMap<>();
+        int granted = 0;
+        for (Map.Entry<String, Integer> entry : wanted.entrySet()) {
+            String tenantId = entry.getKey();
+            double share = (double) (entry.getValue() - floors.get(tenantId)) * spare / totalExtra;
+            int whole = (int) Math.floor(share);
+            allocation.put(tenantId, floors.get(tenantId) + whole);
+            remainders.put(tenantId, share - whole);
+            granted += whole;
+        }
+
+        List<String> byRemainder = new ArrayList<>(remainders.keySet());
+        byRemainder.sort(Comparator.comparing(remainders::get).reversed());
+        for (String tenantId : byRemainder) {
+            if (granted >= spare) {
+                break;
+            }
+            if (allocation.get(tenantId) < wanted.get(tenantId)) {
+                allocation.merge(tenantId, 1, Integer::sum);
+                granted++;
+            }
+        }
+        return allocation;
+    }
+}
@@ -1,16 +1,27 @@
 package com.shoppingcart.multitenant.config;
 
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
 import javax.sql.DataSource;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 @Configuration
@@ -21,10 +32,24 @@ import java.util.Properties;
 )
 public class JpaConfig {
 
+    /**
+     * JDBC batching settings that {@code spring.jpa.properties} may override. Everything else under that
+     * prefix, the dialect in particular, is ignored.
+     */
+    private static final List<String> BATCHING_PROPERTIES = List.of(
+        "hibernate.jdbc.batch_size", "hibernate.order_inserts", "hibernate.order_updates");
+
+    /**
+     * Session factory shared by all tenants. Inserts and updates are sent in JDBC batches of 50 rows,
+     * ordered by entity so that a cart's items end up in the same batch; see
+     * {@link #BATCHING_PROPERTIES} for the settings that can be overridden. SQL is logged to standard
+     * out unless {@code spring.jpa.show-sql} is {@code false}.
+     */
     @Bean
     @Primary
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
-            @Qualifier("routingDataSource") DataSource dataSource) {
+            @Qualifier("routingDataSource") DataSource dataSource, CacheManager hibernateCacheManager,
+            TenantSchemaInitializer tenantSchemaInitializer, Environment environment) {
         
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
@@ -34,13 +59,45 @@ public class JpaConfig {
         Properties jpaProperties = new Properties();
         jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect");
         jpaProperties.put("hibernate.hbm2ddl.auto", "update");
-        jpaProperties.put("hibernate.show_sql", "true");
+        jpaProperties.put("hibernate.show_sql", environment.getProperty("spring.jpa.show-sql", "true"));
         jpaProperties.put("hibernate.format_sql", "true");
+        jpaProperties.put("hibernate.jdbc.batch_size", "50");
+        jpaProperties.put("hibernate.order_inserts", "true");
+        jpaProperties.put("hibernate.order_updates", "true");
+        Map<String, String> overrides = Binder.get(environment)
+            .bind("spring.jpa.properties", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+        BATCHING_PROPERTIES.stream()
+            .filter(overrides::containsKey)
+            .forEach(key -> jpaProperties.put(key, overrides.get(key)));
+        jpaProperties.put("hibernate.cache.use_second_level_cache", "true");
+        jpaProperties.put("hibernate.cache.region.factory_class", TenantJCacheRegionFactory.class.getName());
+        jpaProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        jpaProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        jpaProperties.put("hibernate.integrator_provider",
+            (IntegratorProvider) () -> List.of(tenantSchemaInitializer));
         em.setJpaProperties(jpaProperties);
         
         return em;
     }
 
+    /**
+     * Applies the schema settings above to every tenant database, see {@link TenantSchemaInitializer}.
+     */
+    @Bean
+    public TenantSchemaInitializer tenantSchemaInitializer(TenantFanOutExecutor tenantFanOutExecutor) {
+        return new TenantSchemaInitializer(tenantFanOutExecutor);
+    }
+
+    /**
+     * JCache manager backing the second-level cache, configured from {@code hibernate-cache.conf}.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("classpath:hibernate-cache.conf"), JpaConfig.class.getClassLoader());
+    }
+
     @Bean
     @Primary
     public PlatformTransactionManager transactionManager(
@@ -0,0 +1,21 @@
+package com.shoppingcart.multitenant.config;
+
+import com.shoppingcart.multitenant.metrics.TenantTagLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * The registry is looked up on first use: it publishes pool metrics itself, so it is created
+     * after the meter registry this filter is applied to.
+     */
+    @Bean
+    public TenantTagLimiter tenantTagLimiter(@Value("${metrics.tenants.max-tagged:100}") int maxTaggedTenants,
+                                             ObjectProvider<TenantRegistry> tenantRegistry) {
+        return new TenantTagLimiter(maxTaggedTenants, tenantId -> tenantRegistry.getObject().isRegistered(tenantId));
+    }
+}
@@ -0,0 +1,40 @@
+package com.shoppingcart.multitenant.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Starts {@link CompletableFuture}s that run bound to the tenant of the thread that started them.
+ *
+ * <p>Dependent stages that should also touch the tenant's database must be run with one of the
+ * {@code *Async} stage methods and {@link #executor()}, which captures the tenant of the stage that
+ * schedules them. Parallel streams run on the common fork-join pool and cannot be covered this way,
+ * so tenant-scoped work should be fanned out through this class instead.
+ *
+ * <p>This deliberately does not implement {@link Executor}: an {@code Executor} bean would make
+ * Spring Boot back off from creating its application task executor.
+ */
+public class TenantAwareExecutor {
+
+    private final Executor executor;
+
+    public TenantAwareExecutor(Executor delegate) {
+        this.executor = command -> delegate.execute(TenantContext.wrap(command));
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable runnable) {
+        return CompletableFuture.runAsync(runnable, executor);
+    }
+
+    /**
+     * The tenant-propagating executor, for the {@code *Async} stage methods.
+     */
+    public Executor executor() {
+        return executor;
+    }
+}
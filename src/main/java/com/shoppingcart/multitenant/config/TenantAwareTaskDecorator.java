@@ -0,0 +1,15 @@
+package com.shoppingcart.multitenant.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's tenant over to tasks run by Spring's task executors, so that
+ * {@code @Async} methods and other executor work route to the same tenant database.
+ */
+public class TenantAwareTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TenantContext.wrap(runnable);
+    }
+}
@@ -0,0 +1,60 @@
+package com.shoppingcart.multitenant.config;
+
+import org.hibernate.cache.internal.DefaultCacheKeysFactory;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+
+/**
+ * Second-level cache keys that carry the tenant bound in {@link TenantContext}.
+ *
+ * <p>All tenants share one session factory and tenant databases reuse the same ids, so Hibernate's
+ * default keys would let one tenant read another tenant's cached rows. Every key built here wraps
+ * Hibernate's default key together with the current tenant; that is also the tenant the session's
+ * connection is routed to.
+ */
+public class TenantCacheKeysFactory implements CacheKeysFactory {
+
+    @Override
+    public Object createCollectionKey(Object id, CollectionPersister persister, SessionFactoryImplementor factory,
+                                      String tenantIdentifier) {
+        return new TenantCacheKey(TenantContext.getCurrentTenantOrDefault(),
+            DefaultCacheKeysFactory.staticCreateCollectionKey(id, persister, factory, tenantIdentifier));
+    }
+
+    @Override
+    public Object createEntityKey(Object id, EntityPersister persister, SessionFactoryImplementor factory,
+                                  String tenantIdentifier) {
+        return new TenantCacheKey(TenantContext.getCurrentTenantOrDefault(),
+            DefaultCacheKeysFactory.staticCreateEntityKey(id, persister, factory, tenantIdentifier));
+    }
+
+    @Override
+    public Object createNaturalIdKey(Object naturalIdValues, EntityPersister persister,
+                                     SharedSessionContractImplementor session) {
+        return new TenantCacheKey(TenantContext.getCurrentTenantOrDefault(),
+            DefaultCacheKeysFactory.staticCreateNaturalIdKey(naturalIdValues, persister, session));
+    }
+
+    @Override
+    public Object getEntityId(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetEntityId(((TenantCacheKey) cacheKey).key());
+    }
+
+    @Override
+    public Object getCollectionId(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetCollectionId(((TenantCacheKey) cacheKey).key());
+    }
+
+    @Override
+    public Object getNaturalIdValues(Object cacheKey) {
+        return DefaultCacheKeysFactory.staticGetNaturalIdValues(((TenantCacheKey) cacheKey).key());
+    }
+
+    record TenantCacheKey(String tenantId, Object key) implements Serializable {
+    }
+}
@@ -1,6 +1,23 @@
 package com.shoppingcart.multitenant.config;
 
+import java.util.function.Supplier;
+
+/**
+ * The tenant the current thread works for.
+ *
+ * <p>Code that switches tenants for a unit of work should use {@link #runWithTenant} or
+ * {@link #callWithTenant}, which bind the tenant for the duration of the call and restore the previous
+ * binding afterwards, instead of pairing {@link #setCurrentTenant} with {@link #clear}. Work handed to
+ * another thread (an executor, a virtual thread) does not inherit the binding; capture the tenant and
+ * re-bind it there with the same methods.
+ *
+ * <p>The binding is a plain {@link ThreadLocal}, since the project targets Java 17. The scoped
+ * helpers keep callers independent of it, so it can be replaced by a {@code ScopedValue} once the
+ * toolchain moves to a Java release where that is final.
+ */
 public class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+
     private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
 
     public static void setCurrentTenant(String tenantId) {
@@ -11,7 +28,62 @@ public class TenantContext {
         return CURRENT_TENANT.get();
     }
 
+    /**
+     * The bound tenant, or {@link #DEFAULT_TENANT} when none is bound. Requests only ever bind tenants
+     * the {@link TenantRegistry} knows (see {@code TenantInterceptor}), so this is safe to use as a key
+     * for per-tenant state.
+     */
+    public static String getCurrentTenantOrDefault() {
+        String tenantId = CURRENT_TENANT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
     public static void clear() {
         CURRENT_TENANT.remove();
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs {@code task} with {@code tenantId} bound, then restores the tenant bound before the call.
+     */
+    public static void runWithTenant(String tenantId, Runnable task) {
+        callWithTenant(tenantId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Calls {@code task} with {@code tenantId} bound and returns its result, then restores the tenant
+     * bound before the call.
+     */
+    public static <T> T callWithTenant(String tenantId, Supplier<T> task) {
+        String previousTenant = CURRENT_TENANT.get();
+        CURRENT_TENANT.set(tenantId);
+        try {
+            return task.get();
+        } finally {
+            if (previousTenant != null) {
+                CURRENT_TENANT.set(previousTenant);
+            } else {
+                CURRENT_TENANT.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns a task that runs {@code task} bound to the tenant that is current now, on whichever
+     * thread eventually runs it.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> runWithTenant(tenantId, task);
+    }
+
+    /**
+     * Returns a supplier that calls {@code task} bound to the tenant that is current now.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> callWithTenant(tenantId, task);
+    }
+}
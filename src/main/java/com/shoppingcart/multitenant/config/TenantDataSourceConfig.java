@@ -1,52 +1,42 @@
 package com.shoppingcart.multitenant.config;
 
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.boot.jdbc.DataSourceBuilder;
+import com.shoppingcart.multitenant.metrics.TenantMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 import javax.sql.DataSource;
-import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties({TenantRegistryProperties.class, TenantFanOutProperties.class})
 public class TenantDataSourceConfig {
 
     @Bean
-    @Primary
-    @ConfigurationProperties(prefix = "tenants.default.datasource")
-    public DataSource defaultDataSource() {
-        return DataSourceBuilder.create().build();
+    public TenantRegistry tenantRegistry(Environment environment, TenantRegistryProperties registryProperties,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, TenantProperties> tenants = Binder.get(environment)
+            .bind("tenants", Bindable.mapOf(String.class, TenantProperties.class))
+            .orElse(Map.of());
+        TenantRegistry registry = new TenantRegistry(tenants, registryProperties);
+        registry.setMeterRegistry(meterRegistry.getIfAvailable());
+        return registry;
     }
 
     @Bean
-    @ConfigurationProperties(prefix = "tenants.tenant1.datasource")
-    public DataSource tenant1DataSource() {
-        return DataSourceBuilder.create().build();
-    }
-
-    @Bean
-    @ConfigurationProperties(prefix = "tenants.tenant2.datasource")
-    public DataSource tenant2DataSource() {
-        return DataSourceBuilder.create().build();
+    @Primary
+    public DataSource routingDataSource(TenantRegistry tenantRegistry, ObjectProvider<TenantMetrics> tenantMetrics) {
+        return new TenantRoutingDataSource(tenantRegistry, tenantMetrics.getIfAvailable());
     }
 
     @Bean
-    public DataSource routingDataSource(@Qualifier("defaultDataSource") DataSource defaultDataSource,
-                                       @Qualifier("tenant1DataSource") DataSource tenant1DataSource,
-                                       @Qualifier("tenant2DataSource") DataSource tenant2DataSource) {
-        TenantRoutingDataSource routingDataSource = new TenantRoutingDataSource();
-        
-        Map<Object, Object> targetDataSources = new HashMap<>();
-        targetDataSources.put("default", defaultDataSource);
-        targetDataSources.put("tenant1", tenant1DataSource);
-        targetDataSources.put("tenant2", tenant2DataSource);
-        
-        routingDataSource.setTargetDataSources(targetDataSources);
-        routingDataSource.setDefaultTargetDataSource(defaultDataSource);
-        
-        return routingDataSource;
+    public TenantFanOutExecutor tenantFanOutExecutor(TenantRegistry tenantRegistry, TenantFanOutProperties properties) {
+        return new TenantFanOutExecutor(tenantRegistry, properties);
     }
-}
\ No newline at end of file
+}
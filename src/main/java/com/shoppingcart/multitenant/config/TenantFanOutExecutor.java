@@ -0,0 +1,184 @@
+package com.shoppingcart.multitenant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Runs a tenant-scoped operation against many tenants in parallel and collects the per-tenant
+ * outcomes.
+ *
+ * <p>The operation is called once per tenant with that tenant bound in {@link TenantContext}, so
+ * repositories and {@code @Transactional} services route to the tenant's database as they would for a
+ * request. Tenants are grouped by {@link TenantRegistry#getDatabaseHost database host}, and at most
+ * {@code multitenancy.fan-out.max-per-host} tenants of one run are worked on per host at a time, so a
+ * run does not overload a server that holds many tenants while servers with few tenants finish early.
+ *
+ * <p>Each tenant gets {@code multitenancy.fan-out.tenant-timeout} from the moment its operation
+ * starts. A tenant that overruns is reported with a {@link TimeoutException} and its worker is
+ * interrupted; the run does not wait for it, although its host slot stays taken until the operation
+ * actually returns. A failing tenant never affects the others.
+ */
+public class TenantFanOutExecutor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantFanOutExecutor.class);
+
+    private final TenantRegistry tenantRegistry;
+
+    private final TenantFanOutProperties properties;
+
+    private final ExecutorService workers;
+
+    private final ScheduledExecutorService timeouts;
+
+    public TenantFanOutExecutor(TenantRegistry tenantRegistry, TenantFanOutProperties properties) {
+        this.tenantRegistry = tenantRegistry;
+        this.properties = properties;
+        this.workers = Executors.newFixedThreadPool(properties.getThreads(),
+            new CustomizableThreadFactory("tenant-fan-out-"));
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("tenant-fan-out-timeout-"));
+    }
+
+    /**
+     * Runs {@code operation} for every registered tenant and waits until each tenant has finished,
+     * failed or timed out.
+     */
+    public <T> Result<T> forEachTenant(Supplier<T> operation) {
+        return forTenants(tenantRegistry.getTenantIds(), operation);
+    }
+
+    /**
+     * Runs {@code operation} for the given tenants and waits until each tenant has finished, failed or
+     * timed out.
+     */
+    public <T> Result<T> forTenants(Collection<String> tenantIds, Supplier<T> operation) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        Map<String, Queue<String>> hosts = new LinkedHashMap<>();
+        for (String tenantId : tenantIds) {
+            futures.put(tenantId, new CompletableFuture<>());
+            hosts.computeIfAbsent(tenantRegistry.getDatabaseHost(tenantId), host -> new ConcurrentLinkedQueue<>())
+                .add(tenantId);
+        }
+
+        // Each lane works through its host's queue one tenant at a time, which bounds the host's concurrency.
+        for (Queue<String> queue : hosts.values()) {
+            int lanes = Math.min(properties.getMaxPerHost(), queue.size());
+            for (int i = 0; i < lanes; i++) {
+                workers.execute(() -> {
+                    String tenantId;
+                    while ((tenantId = queue.poll()) != null) {
+                        run(tenantId, operation, futures.get(tenantId));
+                    }
+                });
+            }
+        }
+
+        Map<String, T> results = new TreeMap<>();
+        Map<String, Throwable> failures = new TreeMap<>();
+        futures.forEach((tenantId, future) -> {
+            try {
+                results.put(tenantId, future.join());
+            } catch (CompletionException e) {
+                failures.put(tenantId, e.getCause());
+            }
+        });
+        if (!failures.isEmpty()) {
+            logger.warn("Fan-out failed for {} of {} tenants: {}", failures.size(), futures.size(), failures.keySet());
+        }
+        return new Result<>(results, failures);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+        timeouts.shutdownNow();
+    }
+
+    private <T> void run(String tenantId, Supplier<T> operation, CompletableFuture<T> future) {
+        FutureTask<T> task = new FutureTask<>(() -> TenantContext.callWithTenant(tenantId, operation));
+        ScheduledFuture<?> timeout = timeouts.schedule(() -> {
+            if (future.completeExceptionally(new TimeoutException("Tenant " + tenantId + " did not finish within "
+                    + properties.getTenantTimeout()))) {
+                task.cancel(true);
+            }
+        }, properties.getTenantTimeout().toNanos(), TimeUnit.NANOSECONDS);
+
+        task.run();
+        timeout.cancel(false);
+        if (task.isCancelled()) {
+            return;
+        }
+        try {
+            future.complete(task.get());
+        } catch (ExecutionException e) {
+            future.completeExceptionally(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Outcome of a fan-out run, keyed and ordered by tenant id.
+     *
+     * @param results  the operation's result for every tenant it completed for
+     * @param failures the exception of every tenant it failed for; timed-out tenants have a
+     *                 {@link TimeoutException}
+     */
+    public record Result<T>(Map<String, T> results, Map<String, Throwable> failures) {
+
+        public Result {
+            results = Collections.unmodifiableMap(results);
+            failures = Collections.unmodifiableMap(failures);
+        }
+
+        public boolean isComplete() {
+            return failures.isEmpty();
+        }
+
+        public List<String> timedOut() {
+            List<String> tenantIds = new ArrayList<>();
+            failures.forEach((tenantId, failure) -> {
+                if (failure instanceof TimeoutException) {
+                    tenantIds.add(tenantId);
+                }
+            });
+            return tenantIds;
+        }
+
+        /**
+         * Folds the successful results into one value, in tenant id order.
+         */
+        public T merge(T identity, BinaryOperator<T> accumulator) {
+            T merged = identity;
+            for (T result : results.values()) {
+                merged = accumulator.apply(merged, result);
+            }
+            return merged;
+        }
+    }
+}
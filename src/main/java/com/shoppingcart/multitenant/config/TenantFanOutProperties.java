@@ -0,0 +1,49 @@
+package com.shoppingcart.multitenant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "multitenancy.fan-out")
+public class TenantFanOutProperties {
+
+    /**
+     * Worker threads shared by all fan-out runs.
+     */
+    private int threads = 16;
+
+    /**
+     * Tenants of one fan-out run that may be worked on at the same time per database host.
+     */
+    private int maxPerHost = 4;
+
+    /**
+     * How long the operation may run for a single tenant, counted from when it starts, before that
+     * tenant is reported as timed out and its worker is interrupted.
+     */
+    private Duration tenantTimeout = Duration.ofMinutes(5);
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    public void setMaxPerHost(int maxPerHost) {
+        this.maxPerHost = maxPerHost;
+    }
+
+    public Duration getTenantTimeout() {
+        return tenantTimeout;
+    }
+
+    public void setTenantTimeout(Duration tenantTimeout) {
+        this.tenantTimeout = tenantTimeout;
+    }
+}
@@ -0,0 +1,13 @@
+package com.shoppingcart.multitenant.config;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+/**
+ * JCache region factory whose cache keys carry the current tenant, see {@link TenantCacheKeysFactory}.
+ */
+public class TenantJCacheRegionFactory extends JCacheRegionFactory {
+
+    public TenantJCacheRegionFactory() {
+        super(new TenantCacheKeysFactory());
+    }
+}
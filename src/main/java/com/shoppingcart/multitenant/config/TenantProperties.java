@@ -0,0 +1,140 @@
+package com.shoppingcart.multitenant.config;
+
+/**
+ * Connection settings for a single tenant, bound from {@code tenants.<id>}.
+ *
+ * <p>In schema mode only the shared tenant needs {@code datasource} settings; the other tenants
+ * just name their {@code schema}.
+ */
+public class TenantProperties {
+
+    /**
+     * Schema (MySQL database) holding the tenant's tables when the registry runs in schema mode.
+     * Defaults to the tenant id.
+     */
+    private String schema;
+
+    private DataSource datasource = new DataSource();
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public void setSchema(String schema) {
+        this.schema = schema;
+    }
+
+    public DataSource getDatasource() {
+        return datasource;
+    }
+
+    public void setDatasource(DataSource datasource) {
+        this.datasource = datasource;
+    }
+
+    public static class DataSource {
+
+        private String url;
+
+        private String driverClassName;
+
+        private String username;
+
+        private String password;
+
+        private Hikari hikari = new Hikari();
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Hikari getHikari() {
+            return hikari;
+        }
+
+        public void setHikari(Hikari hikari) {
+            this.hikari = hikari;
+        }
+    }
+
+    public static class Hikari {
+
+        private int maximumPoolSize = 10;
+
+        private int minimumIdle = 0;
+
+        private long connectionTimeout = 30000;
+
+        private long idleTimeout = 600000;
+
+        private long maxLifetime = 1800000;
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(int minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+
+        public long getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(long connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public long getMaxLifetime() {
+            return maxLifetime;
+        }
+
+        public void setMaxLifetime(long maxLifetime) {
+            this.maxLifetime = maxLifetime;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.shoppingcart.multitenant.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runtime registry of tenant connection pools.
+ *
+ * <p>Pools are opened on a tenant's first connection request rather than at startup, closed again
+ * once they have been idle for {@code multitenancy.registry.idle-ttl}, and the sum of their maximum
+ * sizes never exceeds {@code multitenancy.registry.max-total-connections}. When opening a pool would
+ * exceed that budget, the least recently used idle pools are closed first. If every open pool is busy,
+ * opening waits up to the tenant's {@code connection-timeout} for budget to be freed, as borrowing from
+ * a full pool would, and then fails with {@link ConnectionBudgetExhaustedException}.
+ *
+ * <p>With {@code multitenancy.registry.mode=SCHEMA} all tenants share the shared tenant's pool and
+ * are separated by schema instead, so the connection count follows concurrency rather than the
+ * number of tenants.
+ *
+ * <p>Pool bookkeeping is guarded by a {@link ReentrantLock} rather than {@code synchronized}, because
+ * opening a pool connects to the database and a virtual thread blocked inside a monitor would pin its
+ * carrier thread.
+ */
+public class TenantRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+
+    /**
+     * How often a thread waiting for budget looks for idle pools again. Pools turn idle when their
+     * connections are returned, which is not signalled.
+     */
+    private static final long BUDGET_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<String, TenantProperties> definitions = new ConcurrentHashMap<>();
+
+    private final Map<String, TenantPool> pools = new ConcurrentHashMap<>();
+
+    private final TenantRegistryProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled whenever pools are closed or shrunk, releasing connection budget.
+     */
+    private final Condition budgetReleased = lock.newCondition();
+
+    private int reservedConnections;
+
+    private MeterRegistry meterRegistry;
+
+    public TenantRegistry(Map<String, TenantProperties> definitions, TenantRegistryProperties properties) {
+        this.definitions.putAll(definitions);
+        this.properties = properties;
+    }
+
+    /**
+     * Publishes the Hikari metrics of every pool opened from now on, tagged {@code pool=tenant-<id>}.
+     * The meters are removed again when the pool is closed.
+     */
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void register(String tenantId, TenantProperties definition) {
+        logger.info("Registering tenant: {}", tenantId);
+        definitions.put(tenantId, definition);
+    }
+
+    public void unregister(String tenantId) {
+        logger.info("Unregistering tenant: {}", tenantId);
+        definitions.remove(tenantId);
+        lock.lock();
+        try {
+            TenantPool pool = pools.get(tenantId);
+            if (pool != null) {
+                closePool(pool);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRegistered(String tenantId) {
+        return tenantId != null && definitions.containsKey(tenantId);
+    }
+
+    public List<String> getTenantIds() {
+        List<String> tenantIds = new ArrayList<>(definitions.keySet());
+        Collections.sort(tenantIds);
+        return tenantIds;
+    }
+
+    /**
+     * The database server the tenant's connections go to, as {@code host:port} taken from its JDBC URL,
+     * so that work can be spread across servers. In schema mode every tenant is on the shared tenant's
+     * server. URLs without a host part (embedded databases) are returned without their parameters.
+     */
+    public String getDatabaseHost(String tenantId) {
+        String key = properties.getMode() == TenantRegistryProperties.Mode.SCHEMA
+            ? properties.getSharedTenant()
+            : resolveTenant(tenantId);
+        TenantProperties definition = definitions.get(key);
+        String url = definition != null ? definition.getDatasource().getUrl() : null;
+        if (url == null) {
+            return key;
+        }
+        int start = url.indexOf("//");
+        if (start < 0) {
+            int end = url.indexOf(';');
+            return end < 0 ? url : url.substring(0, end);
+        }
+        start += 2;
+        int end = start;
+        while (end < url.length() && "/?;".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    public boolean isPoolOpen(String tenantId) {
+        return pools.containsKey(tenantId);
+    }
+
+    public int getReservedConnections() {
+        lock.lock();
+        try {
+            return reservedConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxTotalConnections() {
+        return properties.getMaxTotalConnections();
+    }
+
+    /**
+     * Point-in-time usage of every open tenant pool.
+     */
+    public List<PoolUsage> getPoolUsage() {
+        List<PoolUsage> usage = new ArrayList<>();
+        for (TenantPool pool : pools.values()) {
+            HikariPoolMXBean mxBean = pool.dataSource.getHikariPoolMXBean();
+            if (mxBean == null) {
+                continue;
+            }
+            usage.add(new PoolUsage(pool.tenantId, mxBean.getActiveConnections(),
+                mxBean.getThreadsAwaitingConnection(), pool.reserved, pool.maximumPoolSize));
+        }
+        return usage;
+    }
+
+    /**
+     * Changes the maximum size of an open tenant pool. Growing a pool is refused when it would take the
+     * registry over its connection budget.
+     *
+     * @return whether the pool now has the requested size
+     */
+    public boolean resizePool(String tenantId, int maximumPoolSize) {
+        lock.lock();
+        try {
+            return resize(tenantId, maximumPoolSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean resize(String tenantId, int maximumPoolSize) {
+        TenantPool pool = pools.get(tenantId);
+        if (pool == null || pool.reserved == maximumPoolSize) {
+            return pool != null;
+        }
+        int delta = maximumPoolSize - pool.reserved;
+        if (delta > 0 && reservedConnections + delta > properties.getMaxTotalConnections()) {
+            return false;
+        }
+
+        logger.debug("Resizing connection pool for tenant {} from {} to {}", tenantId, pool.reserved, maximumPoolSize);
+        HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+        if (config.getMinimumIdle() > maximumPoolSize) {
+            config.setMinimumIdle(maximumPoolSize);
+        }
+        config.setMaximumPoolSize(maximumPoolSize);
+        reservedConnections += delta;
+        pool.reserved = maximumPoolSize;
+        if (delta < 0) {
+            budgetReleased.signalAll();
+        }
+        return true;
+    }
+
+    /**
+     * Borrows a connection from the tenant's pool, opening the pool first if needed. Tenants that are
+     * not registered fall back to the default tenant, matching the lenient routing behaviour.
+     *
+     * <p>In schema mode every tenant borrows from the shared tenant's pool and the connection is
+     * switched to the tenant's schema before it is handed out.
+     */
+    public Connection getConnection(String tenantId) throws SQLException {
+        String key = resolveTenant(tenantId);
+        if (properties.getMode() != TenantRegistryProperties.Mode.SCHEMA) {
+            return borrow(key);
+        }
+
+        Connection connection = borrow(properties.getSharedTenant());
+        try {
+            switchSchema(connection, schemaOf(key));
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the pool the tenant's connections come from, unless it is open already, so that a request
+     * can be turned away before it starts when there is no connection budget for it.
+     *
+     * @throws ConnectionBudgetExhaustedException if no budget was freed within the connection timeout
+     */
+    public void ensurePoolOpen(String tenantId) {
+        String key = resolveTenant(tenantId);
+        pool(properties.getMode() == TenantRegistryProperties.Mode.SCHEMA ? properties.getSharedTenant() : key);
+    }
+
+    public DataSource getDataSource(String tenantId) {
+        String key = resolveTenant(tenantId);
+        if (properties.getMode() == TenantRegistryProperties.Mode.SCHEMA) {
+            return new TenantSchemaDataSource(key, pool(properties.getSharedTenant()).dataSource);
+        }
+        return pool(key).dataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${multitenancy.registry.eviction-interval:PT1M}")
+    public void evictIdlePools() {
+        long idleTtlNanos = properties.getIdleTtl().toNanos();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (TenantPool pool : new ArrayList<>(pools.values())) {
+                if (now - pool.lastUsed >= idleTtlNanos && pool.activeConnections() == 0) {
+                    logger.info("Closing idle connection pool for tenant: {}", pool.tenantId);
+                    closePool(pool);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            for (TenantPool pool : new ArrayList<>(pools.values())) {
+                closePool(pool);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TenantPool pool(String tenantId) {
+        TenantPool pool = pools.get(tenantId);
+        return pool != null ? pool : openPool(tenantId);
+    }
+
+    private Connection borrow(String tenantId) throws SQLException {
+        while (true) {
+            TenantPool pool = pool(tenantId);
+            try {
+                return pool.getConnection();
+            } catch (SQLException e) {
+                // The pool was evicted between lookup and checkout; open a fresh one.
+                if (!pool.isClosed()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String schemaOf(String tenantId) {
+        TenantProperties definition = definitions.get(tenantId);
+        return definition != null && definition.getSchema() != null ? definition.getSchema() : tenantId;
+    }
+
+    private void switchSchema(Connection connection, String schema) throws SQLException {
+        if (properties.getSchemaSwitch() == TenantRegistryProperties.SchemaSwitch.SCHEMA) {
+            connection.setSchema(schema);
+        } else {
+            connection.setCatalog(schema);
+        }
+    }
+
+    private String resolveTenant(String tenantId) {
+        if (isRegistered(tenantId)) {
+            return tenantId;
+        }
+        if (isRegistered(TenantContext.DEFAULT_TENANT)) {
+            return TenantContext.DEFAULT_TENANT;
+        }
+        throw new IllegalStateException("No datasource registered for tenant: " + tenantId);
+    }
+
+    private TenantPool openPool(String tenantId) {
+        lock.lock();
+        try {
+            return open(tenantId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TenantPool open(String tenantId) {
+        TenantPool existing = pools.get(tenantId);
+        if (existing != null) {
+            return existing;
+        }
+
+        TenantProperties definition = definitions.get(tenantId);
+        if (definition == null) {
+            throw new IllegalStateException("No datasource registered for tenant: " + tenantId);
+        }
+
+        int maximumPoolSize = definition.getDatasource().getHikari().getMaximumPoolSize();
+        int poolSize = properties.getBudget().isEnabled()
+            ? Math.min(properties.getBudget().getFloor(), maximumPoolSize)
+            : maximumPoolSize;
+        long deadline = System.nanoTime()
+            + TimeUnit.MILLISECONDS.toNanos(definition.getDatasource().getHikari().getConnectionTimeout());
+        while (reservedConnections + poolSize > properties.getMaxTotalConnections()) {
+            if (evictLeastRecentlyUsedIdlePool()) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !awaitBudget(Math.min(remaining, BUDGET_RECHECK_NANOS))) {
+                throw new ConnectionBudgetExhaustedException("Connection budget of "
+                    + properties.getMaxTotalConnections() + " exhausted, cannot open pool for tenant: " + tenantId);
+            }
+            // Another thread may have opened the pool while this one waited.
+            existing = pools.get(tenantId);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        logger.info("Opening connection pool for tenant: {} (max {} connections)", tenantId, poolSize);
+        TenantPool pool = new TenantPool(tenantId, createDataSource(tenantId, definition.getDatasource(), poolSize),
+            poolSize, maximumPoolSize);
+        pools.put(tenantId, pool);
+        reservedConnections += poolSize;
+        return pool;
+    }
+
+    /**
+     * @return {@code false} if the thread was interrupted while waiting
+     */
+    private boolean awaitBudget(long nanos) {
+        try {
+            budgetReleased.awaitNanos(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean evictLeastRecentlyUsedIdlePool() {
+        TenantPool candidate = null;
+        for (TenantPool pool : pools.values()) {
+            if (pool.activeConnections() == 0 && (candidate == null || pool.lastUsed < candidate.lastUsed)) {
+                candidate = pool;
+            }
+        }
+        if (candidate == null) {
+            return false;
+        }
+        logger.info("Closing connection pool for tenant {} to free connection budget", candidate.tenantId);
+        closePool(candidate);
+        return true;
+    }
+
+    private void closePool(TenantPool pool) {
+        if (pools.remove(pool.tenantId, pool)) {
+            reservedConnections -= pool.reserved;
+            pool.dataSource.close();
+            budgetReleased.signalAll();
+        }
+    }
+
+    private HikariDataSource createDataSource(String tenantId, TenantProperties.DataSource settings, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("tenant-" + tenantId);
+        config.setJdbcUrl(settings.getUrl());
+        if (settings.getDriverClassName() != null) {
+            config.setDriverClassName(settings.getDriverClassName());
+        }
+        config.setUsername(settings.getUsername());
+        config.setPassword(settings.getPassword());
+
+        TenantProperties.Hikari hikari = settings.getHikari();
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(Math.min(hikari.getMinimumIdle(), poolSize));
+        config.setConnectionTimeout(hikari.getConnectionTimeout());
+        config.setIdleTimeout(hikari.getIdleTimeout());
+        config.setMaxLifetime(hikari.getMaxLifetime());
+        if (meterRegistry != null) {
+            config.setMetricRegistry(meterRegistry);
+        }
+        return new HikariDataSource(config);
+    }
+
+    private class TenantSchemaDataSource extends DelegatingDataSource {
+
+        private final String tenantId;
+
+        TenantSchemaDataSource(String tenantId, DataSource sharedDataSource) {
+            super(sharedDataSource);
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return TenantRegistry.this.getConnection(tenantId);
+        }
+    }
+
+    /**
+     * @param reserved        connections the pool currently holds against the budget (its maximum size)
+     * @param maximumPoolSize the configured upper bound for this tenant
+     */
+    public record PoolUsage(String tenantId, int active, int awaiting, int reserved, int maximumPoolSize) {
+    }
+
+    private static class TenantPool {
+
+        private final String tenantId;
+
+        private final HikariDataSource dataSource;
+
+        private final int maximumPoolSize;
+
+        private int reserved;
+
+        private volatile long lastUsed = System.nanoTime();
+
+        TenantPool(String tenantId, HikariDataSource dataSource, int reserved, int maximumPoolSize) {
+            this.tenantId = tenantId;
+            this.dataSource = dataSource;
+            this.reserved = reserved;
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        Connection getConnection() throws SQLException {
+            lastUsed = System.nanoTime();
+            return dataSource.getConnection();
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+
+        boolean isClosed() {
+            return dataSource.isClosed();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.shoppingcart.multitenant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "multitenancy.registry")
+public class TenantRegistryProperties {
+
+    /**
+     * How tenants are isolated: a connection pool per tenant database, or one shared pool whose
+     * connections are pointed at the tenant's schema on checkout.
+     */
+    private Mode mode = Mode.DATABASE;
+
+    /**
+     * Tenant whose {@code datasource} settings back the shared pool in {@link Mode#SCHEMA} mode.
+     */
+    private String sharedTenant = TenantContext.DEFAULT_TENANT;
+
+    /**
+     * JDBC call used to select the tenant schema. MySQL treats databases as catalogs.
+     */
+    private SchemaSwitch schemaSwitch = SchemaSwitch.CATALOG;
+
+    /**
+     * How long a tenant pool may sit without handing out a connection before it is closed.
+     */
+    private Duration idleTtl = Duration.ofMinutes(10);
+
+    /**
+     * Upper bound on the sum of maximum pool sizes across all open tenant pools.
+     */
+    private int maxTotalConnections = 100;
+
+    private Budget budget = new Budget();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public String getSharedTenant() {
+        return sharedTenant;
+    }
+
+    public void setSharedTenant(String sharedTenant) {
+        this.sharedTenant = sharedTenant;
+    }
+
+    public SchemaSwitch getSchemaSwitch() {
+        return schemaSwitch;
+    }
+
+    public void setSchemaSwitch(SchemaSwitch schemaSwitch) {
+        this.schemaSwitch = schemaSwitch;
+    }
+
+    public Duration getIdleTtl() {
+        return idleTtl;
+    }
+
+    public void setIdleTtl(Duration idleTtl) {
+        this.idleTtl = idleTtl;
+    }
+
+    public int getMaxTotalConnections() {
+        return maxTotalConnections;
+    }
+
+    public void setMaxTotalConnections(int maxTotalConnections) {
+        this.maxTotalConnections = maxTotalConnections;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Budget budget) {
+        this.budget = budget;
+    }
+
+    public enum Mode {
+        DATABASE, SCHEMA
+    }
+
+    public enum SchemaSwitch {
+        CATALOG, SCHEMA
+    }
+
+    /**
+     * Demand-driven resizing of tenant pools within {@code max-total-connections}.
+     */
+    public static class Budget {
+
+        private boolean enabled = false;
+
+        /**
+         * Pool size every open tenant pool keeps regardless of demand. New pools start at this size.
+         */
+        private int floor = 2;
+
+        /**
+         * Weight of the latest sample in the smoothed demand, between 0 and 1.
+         */
+        private double smoothing = 0.5;
+
+        /**
+         * Spare capacity granted on top of the smoothed demand.
+         */
+        private double headroom = 1.25;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getFloor() {
+            return floor;
+        }
+
+        public void setFloor(int floor) {
+            this.floor = floor;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getHeadroom() {
+            return headroom;
+        }
+
+        public void setHeadroom(double headroom) {
+            this.headroom = headroom;
+        }
+    }
+}
@@ -1,12 +1,63 @@
 package com.shoppingcart.multitenant.config;
 
+import com.shoppingcart.multitenant.metrics.TenantMetrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
 public class TenantRoutingDataSource extends AbstractRoutingDataSource {
-    
+
+    private final TenantRegistry tenantRegistry;
+
+    private final TenantMetrics tenantMetrics;
+
+    public TenantRoutingDataSource(TenantRegistry tenantRegistry) {
+        this(tenantRegistry, null);
+    }
+
+    /**
+     * @param tenantMetrics records connection acquisition time per tenant, if not {@code null}
+     */
+    public TenantRoutingDataSource(TenantRegistry tenantRegistry, TenantMetrics tenantMetrics) {
+        this.tenantRegistry = tenantRegistry;
+        this.tenantMetrics = tenantMetrics;
+        // Targets are resolved through the registry, which opens tenant pools on demand.
+        setTargetDataSources(Collections.emptyMap());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (tenantMetrics == null) {
+            return tenantRegistry.getConnection((String) determineCurrentLookupKey());
+        }
+        Timer.Sample sample = tenantMetrics.start();
+        String outcome = "failure";
+        try {
+            Connection connection = tenantRegistry.getConnection((String) determineCurrentLookupKey());
+            outcome = "success";
+            return connection;
+        } finally {
+            tenantMetrics.stop(sample, TenantMetrics.CONNECTION_ACQUIRE, Tags.of("outcome", outcome));
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTargetDataSource().getConnection(username, password);
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        return tenantRegistry.getDataSource((String) determineCurrentLookupKey());
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
-        String tenant = TenantContext.getCurrentTenant();
-        return tenant != null ? tenant : "default";
+        return TenantContext.getCurrentTenantOrDefault();
     }
-}
\ No newline at end of file
+}
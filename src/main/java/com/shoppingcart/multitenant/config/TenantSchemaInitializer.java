@@ -0,0 +1,139 @@
+package com.shoppingcart.multitenant.config;
+
+import org.hibernate.Session;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings the schema and id generators of every tenant database up to date at startup.
+ *
+ * <p>Hibernate applies {@code hibernate.hbm2ddl.auto} only through the connection it opens while
+ * building the session factory, which routes to the default tenant. This initializer repeats that
+ * step for every other registered tenant, so their tables and {@code *_seq} generators exist before
+ * the first request or the {@link DataLoader} reaches them.
+ *
+ * <p>It then advances each {@link TenantSequenceStyleGenerator} of every tenant past the largest id
+ * already stored in its table. Tables that were filled while ids still came from
+ * {@code AUTO_INCREMENT} would otherwise get a generator starting at 1 and collide with the existing
+ * rows. A generator that is already ahead is left alone.
+ *
+ * <p>Registered with Hibernate as an {@link Integrator} to get hold of the boot metadata and the
+ * session factory.
+ */
+public class TenantSchemaInitializer implements Integrator, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantSchemaInitializer.class);
+
+    private final TenantFanOutExecutor fanOutExecutor;
+
+    private volatile Metadata metadata;
+
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    public TenantSchemaInitializer(TenantFanOutExecutor fanOutExecutor) {
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.sessionFactory = null;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (sessionFactory == null) {
+            return;
+        }
+        TenantFanOutExecutor.Result<Integer> result = fanOutExecutor.forEachTenant(this::initializeCurrentTenant);
+        result.failures().forEach((tenantId, failure) ->
+            logger.warn("Could not initialize the schema of tenant {}", tenantId, failure));
+        logger.info("Initialized the schema of {} tenants ({} failed)",
+            result.results().size(), result.failures().size());
+    }
+
+    /**
+     * Updates the schema of the tenant bound in {@link TenantContext} and advances its id generators.
+     *
+     * @return the number of generators that were advanced
+     */
+    int initializeCurrentTenant() {
+        if (!TenantContext.DEFAULT_TENANT.equals(TenantContext.getCurrentTenant())) {
+            SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                sessionFactory.getProperties(), action -> { });
+        }
+        int advanced = 0;
+        for (TenantSequence sequence : tenantSequences()) {
+            advanced += sessionFactory.fromTransaction(session -> advance(session, sequence)) ? 1 : 0;
+        }
+        return advanced;
+    }
+
+    private List<TenantSequence> tenantSequences() {
+        List<TenantSequence> sequences = new ArrayList<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof TenantSequenceStyleGenerator generator
+                    && persister.getEntityName().equals(persister.getRootEntityName())) {
+                sequences.add(new TenantSequence(persister, generator.getDatabaseStructure()));
+            }
+        });
+        return sequences;
+    }
+
+    /**
+     * Moves the generator's next value to at least {@code MAX(id) + increment}. The pooled optimizer
+     * hands out the block below the value it reads, so the first id generated is above every stored id.
+     */
+    private boolean advance(Session session, TenantSequence sequence) {
+        EntityPersister persister = sequence.persister();
+        Number maxId = session.createSelectionQuery("SELECT MAX(e." + persister.getIdentifierPropertyName()
+                + ") FROM " + persister.getEntityName() + " e", Number.class)
+            .getSingleResult();
+        if (maxId == null) {
+            return false;
+        }
+        DatabaseStructure structure = sequence.structure();
+        String name = structure.getPhysicalName().render();
+        long target = maxId.longValue() + structure.getIncrementSize();
+
+        if (!structure.isPhysicalSequence()) {
+            return session.createNativeMutationQuery("UPDATE " + name + " SET "
+                    + SequenceStyleGenerator.DEF_VALUE_COLUMN + " = :target WHERE "
+                    + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < :target")
+                .setParameter("target", target)
+                .executeUpdate() > 0;
+        }
+        Long next = session.createNativeQuery(sessionFactory.getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(name), Long.class)
+            .getSingleResult();
+        if (next >= target) {
+            return false;
+        }
+        session.createNativeMutationQuery("ALTER SEQUENCE " + name + " RESTART WITH " + target)
+            .executeUpdate();
+        return true;
+    }
+
+    private record TenantSequence(EntityPersister persister, DatabaseStructure structure) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.shoppingcart.multitenant.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * Sequence generator whose optimizer keeps a separate block of ids per tenant.
+ *
+ * <p>Every tenant database has its own sequence, but all tenants share one session factory and
+ * therefore one optimizer. Hibernate only sets a tenant on the optimizer's callback when it manages
+ * multi-tenancy itself, so a pooled optimizer would hand ids fetched from one tenant's sequence to
+ * another tenant. This generator passes the current tenant instead, so that each tenant's block comes
+ * from that tenant's sequence.
+ */
+public class TenantSequenceStyleGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        AccessCallback callback = getDatabaseStructure().buildCallback(session);
+        String stateKey = TenantContext.getCurrentTenantOrDefault();
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return callback.getNextValue();
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return stateKey;
+            }
+        });
+    }
+}
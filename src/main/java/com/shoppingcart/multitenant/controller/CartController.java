@@ -1,5 +1,6 @@
 package com.shoppingcart.multitenant.controller;
 
+import com.shoppingcart.multitenant.dto.CartView;
 import com.shoppingcart.multitenant.model.Cart;
 import com.shoppingcart.multitenant.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,15 +17,15 @@ public class CartController {
     private CartService cartService;
 
     @GetMapping
-    public ResponseEntity<Cart> getCart(HttpServletRequest request) {
+    public ResponseEntity<CartView> getCart(HttpServletRequest request) {
         String sessionId = request.getSession().getId();
-        Cart cart = cartService.getCartBySessionId(sessionId);
+        CartView cart = cartService.getCartViewBySessionId(sessionId);
         return ResponseEntity.ok(cart);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Cart> getCartByUserId(@PathVariable String userId) {
-        Cart cart = cartService.getCartByUserId(userId);
+    public ResponseEntity<CartView> getCartByUserId(@PathVariable String userId) {
+        CartView cart = cartService.getCartViewByUserId(userId);
         return ResponseEntity.ok(cart);
     }
 
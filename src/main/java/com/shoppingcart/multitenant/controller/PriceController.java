@@ -1,25 +1,42 @@
 package com.shoppingcart.multitenant.controller;
 
+import com.shoppingcart.multitenant.dto.EffectivePrice;
+import com.shoppingcart.multitenant.dto.EffectivePriceRequest;
+import com.shoppingcart.multitenant.dto.PriceBookImportReport;
 import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
+import com.shoppingcart.multitenant.service.PriceBookService;
 import com.shoppingcart.multitenant.service.PriceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/prices")
 @Validated
 public class PriceController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final String CSV = "text/csv";
+
     @Autowired
     private PriceService priceService;
 
+    @Autowired
+    private PriceBookService priceBookService;
+
     @GetMapping("/product/{productId}/effective")
     public ResponseEntity<BigDecimal> getEffectivePrice(
             @PathVariable Long productId,
@@ -33,6 +50,12 @@ public class PriceController {
         }
     }
 
+    @PostMapping("/effective")
+    public ResponseEntity<List<EffectivePrice>> getEffectivePrices(@Valid @RequestBody EffectivePriceRequest request) {
+        List<EffectivePrice> prices = priceService.getEffectivePrices(request.items(), request.customerGroup());
+        return ResponseEntity.ok(prices);
+    }
+
     @GetMapping("/product/{productId}")
     public ResponseEntity<List<Price>> getProductPrices(@PathVariable Long productId) {
         try {
@@ -49,12 +72,22 @@ public class PriceController {
         return ResponseEntity.ok(prices);
     }
 
+    /**
+     * Responds 409 for a price outside any price book while a book is active, since it would not apply.
+     */
     @PostMapping
     public ResponseEntity<Price> createPrice(@Valid @RequestBody Price price) {
-        Price createdPrice = priceService.createPrice(price);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdPrice);
+        try {
+            Price createdPrice = priceService.createPrice(price);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdPrice);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
+    /**
+     * Responds 409 for a price outside any price book while a book is active, since it would not apply.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Price> updatePrice(
             @PathVariable Long id,
@@ -62,6 +95,8 @@ public class PriceController {
         try {
             Price updatedPrice = priceService.updatePrice(id, price);
             return ResponseEntity.ok(updatedPrice);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -86,4 +121,57 @@ public class PriceController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/books")
+    public ResponseEntity<List<PriceBook>> getPriceBooks() {
+        return ResponseEntity.ok(priceBookService.getPriceBooks());
+    }
+
+    /**
+     * Imports the uploaded price list into a new price book, reading the body as it arrives; send
+     * {@code Content-Encoding: gzip} to upload compressed. The book is activated afterwards only when
+     * {@code activate} is set. Responds 400 for an unusable CSV header.
+     */
+    @PostMapping(value = "/books", consumes = {CSV, NDJSON})
+    public ResponseEntity<PriceBookImportReport> importPriceBook(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "false") boolean activate,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        PriceBookService.Format format = MediaType.parseMediaType(contentType)
+            .isCompatibleWith(MediaType.parseMediaType(CSV))
+            ? PriceBookService.Format.CSV
+            : PriceBookService.Format.NDJSON;
+        InputStream input = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        try {
+            PriceBookImportReport report = priceBookService.importPriceBook(input, format, name, activate);
+            return ResponseEntity.status(HttpStatus.CREATED).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/books/{id}/activate")
+    public ResponseEntity<PriceBook> activatePriceBook(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(priceBookService.activate(id));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/books/{id}")
+    public ResponseEntity<Void> deletePriceBook(@PathVariable Long id) {
+        try {
+            priceBookService.delete(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,46 +1,121 @@
 package com.shoppingcart.multitenant.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoppingcart.multitenant.dto.ProductCursor;
+import com.shoppingcart.multitenant.dto.ProductCursorPage;
+import com.shoppingcart.multitenant.dto.ProductImportReport;
+import com.shoppingcart.multitenant.dto.ProductSuggestion;
 import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.service.ProductImportService;
 import com.shoppingcart.multitenant.service.ProductService;
 import com.shoppingcart.multitenant.service.TenantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
 @Validated
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final String CSV = "text/csv";
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/tenant")
     public ResponseEntity<String> getCurrentTenant() {
         return ResponseEntity.ok(tenantService.getCurrentTenant());
     }
 
     @GetMapping
-    public ResponseEntity<Page<Product>> getProducts(Pageable pageable) {
-        Page<Product> products = productService.getActiveProducts(pageable);
+    public ResponseEntity<Slice<Product>> getProducts(
+            Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
+        Slice<Product> products = count
+            ? productService.getActiveProducts(pageable)
+            : productService.getActiveProductSlice(pageable);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/seek")
+    public ResponseEntity<ProductCursorPage> seekProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "ID") ProductCursor.Key sort,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(productService.seekActiveProducts(cursor, sort, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/all")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllActiveProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        return streamJsonArray(action -> productService.streamActiveProducts(0L, action));
+    }
+
+    /**
+     * Exports the active catalog as newline-delimited JSON in id order, gzip-compressed when the client
+     * accepts it. An interrupted export resumes with {@code after} set to the id on the last line
+     * received.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(target)) {
+                // One value per line instead of Jackson's default space between root values.
+                json.setRootValueSeparator(null);
+                productService.streamActiveProducts(after, product -> {
+                    writeProduct(json, product);
+                    writeNewline(json);
+                });
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/{id}")
@@ -77,10 +152,16 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+
     @GetMapping("/in-stock")
-    public ResponseEntity<List<Product>> getInStockProducts() {
-        List<Product> products = productService.getInStockProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> getInStockProducts() {
+        return streamJsonArray(productService::streamInStockProducts);
     }
 
     @PostMapping
@@ -89,6 +170,36 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    /**
+     * Upserts the uploaded products by SKU, reading the body as it arrives; send
+     * {@code Content-Encoding: gzip} to upload compressed. Responds with the import report, 400 for an
+     * unusable CSV header and 409 while another import of the tenant is running.
+     */
+    @PostMapping(value = "/import", consumes = {CSV, NDJSON})
+    public ResponseEntity<ProductImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType)
+            .isCompatibleWith(MediaType.parseMediaType(CSV))
+            ? ProductImportService.Format.CSV
+            : ProductImportService.Format.NDJSON;
+        InputStream input = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(input, format));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<ProductImportReport> getImportProgress() {
+        ProductImportReport progress = productImportService.getProgress();
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
             @PathVariable Long id,
@@ -120,4 +231,36 @@ public class ProductController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the products passed on by {@code source} as a JSON array while they are read, instead of
+     * collecting them into a list first. The body is written on the MVC async executor, whose task
+     * decorator carries the request's tenant over.
+     */
+    private ResponseEntity<StreamingResponseBody> streamJsonArray(Consumer<Consumer<Product>> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                source.accept(product -> writeProduct(json, product));
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void writeProduct(JsonGenerator json, Product product) {
+        try {
+            json.writeObject(product);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNewline(JsonGenerator json) {
+        try {
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
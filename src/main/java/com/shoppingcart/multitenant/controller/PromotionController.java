@@ -119,7 +119,13 @@ public class PromotionController {
 
     @PostMapping("/{id}/increment-usage")
     public ResponseEntity<Void> incrementUsage(@PathVariable Long id) {
-        promotionService.incrementUsage(id);
-        return ResponseEntity.ok().build();
+        try {
+            if (!promotionService.incrementUsage(id)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 }
\ No newline at end of file
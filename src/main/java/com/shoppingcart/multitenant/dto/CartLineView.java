@@ -0,0 +1,7 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.math.BigDecimal;
+
+public record CartLineView(Long productId, String productName, String sku, BigDecimal unitPrice,
+                           Integer quantity, BigDecimal totalPrice) {
+}
@@ -0,0 +1,46 @@
+package com.shoppingcart.multitenant.dto;
+
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.model.CartItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model of a cart served by the GET cart endpoints: the totals and, per line, only the product
+ * fields a cart page shows.
+ */
+public record CartView(Long id, String sessionId, String userId, List<CartLineView> items,
+                       String promotionCode, BigDecimal subtotal, BigDecimal discountAmount,
+                       BigDecimal totalAmount, LocalDateTime updatedAt) {
+
+    /**
+     * Assembles the view from the rows of {@code CartRepository.findViewBySessionId} or
+     * {@code findViewByUserId}; the rows must not be empty.
+     */
+    public static CartView of(List<CartViewRow> rows) {
+        CartViewRow cart = rows.get(0);
+        List<CartLineView> items = new ArrayList<>(rows.size());
+        for (CartViewRow row : rows) {
+            if (row.productId() != null) {
+                items.add(new CartLineView(row.productId(), row.productName(), row.sku(),
+                    row.unitPrice(), row.quantity(), row.totalPrice()));
+            }
+        }
+        return new CartView(cart.cartId(), cart.sessionId(), cart.userId(), items, cart.promotionCode(),
+            cart.subtotal(), cart.discountAmount(), cart.totalAmount(), cart.updatedAt());
+    }
+
+    public static CartView of(Cart cart) {
+        List<CartLineView> items = new ArrayList<>(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            items.add(new CartLineView(item.getProduct().getId(), item.getProduct().getName(),
+                item.getProduct().getSku(), item.getUnitPrice(), item.getQuantity(), item.getTotalPrice()));
+        }
+        String promotionCode = cart.getAppliedPromotion() != null ? cart.getAppliedPromotion().getCode() : null;
+        return new CartView(cart.getId(), cart.getSessionId(), cart.getUserId(), items, promotionCode,
+            cart.getSubtotal(), cart.getDiscountAmount(), cart.getTotalAmount(), cart.getUpdatedAt());
+    }
+}
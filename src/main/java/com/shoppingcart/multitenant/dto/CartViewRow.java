@@ -0,0 +1,14 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the cart projection query: the cart's columns repeated for each of its lines. A cart
+ * without items yields a single row with {@code null} line columns.
+ */
+public record CartViewRow(Long cartId, String sessionId, String userId, String promotionCode,
+                          BigDecimal subtotal, BigDecimal discountAmount, BigDecimal totalAmount,
+                          LocalDateTime updatedAt, Long productId, String productName, String sku,
+                          BigDecimal unitPrice, Integer quantity, BigDecimal totalPrice) {
+}
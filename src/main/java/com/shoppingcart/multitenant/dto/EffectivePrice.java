@@ -0,0 +1,6 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.math.BigDecimal;
+
+public record EffectivePrice(Long productId, Integer quantity, BigDecimal price) {
+}
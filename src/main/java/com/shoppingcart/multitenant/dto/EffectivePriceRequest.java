@@ -0,0 +1,21 @@
+package com.shoppingcart.multitenant.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/prices/effective}: the products to price and the customer group they are
+ * priced for.
+ */
+public record EffectivePriceRequest(
+        String customerGroup,
+        @NotEmpty @Size(max = 500) List<@Valid Item> items) {
+
+    public record Item(@NotNull Long productId, @NotNull @Positive Integer quantity) {
+    }
+}
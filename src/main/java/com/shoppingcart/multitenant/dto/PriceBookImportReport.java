@@ -0,0 +1,22 @@
+package com.shoppingcart.multitenant.dto;
+
+import com.shoppingcart.multitenant.model.PriceBook;
+
+import java.util.List;
+
+/**
+ * Outcome of a price book import.
+ *
+ * @param rows     data rows read
+ * @param staged   prices stored in the book
+ * @param errors   the first rejected rows, with the reason
+ */
+public record PriceBookImportReport(PriceBook priceBook, long rows, long staged, long rejected,
+                                    List<RowError> errors) {
+
+    /**
+     * @param line line number in the uploaded file, counting the CSV header
+     */
+    public record RowError(long line, String sku, String message) {
+    }
+}
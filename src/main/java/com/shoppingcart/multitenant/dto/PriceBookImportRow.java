@@ -0,0 +1,12 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One price of a price book import. The product is identified by its SKU; absent optional fields take
+ * the defaults of a new {@link com.shoppingcart.multitenant.model.Price}.
+ */
+public record PriceBookImportRow(String sku, BigDecimal price, String priceType, String customerGroup,
+                                 Integer minQuantity, LocalDateTime validFrom, LocalDateTime validTo) {
+}
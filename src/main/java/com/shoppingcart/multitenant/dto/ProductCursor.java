@@ -0,0 +1,53 @@
+package com.shoppingcart.multitenant.dto;
+
+import com.shoppingcart.multitenant.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last product of a keyset page. Clients receive it as an opaque string from
+ * {@link #encode()} and send it back unchanged to fetch the next page.
+ *
+ * @param updatedAt the last product's {@code updatedAt}, {@code null} when ordered by id
+ */
+public record ProductCursor(Key key, LocalDateTime updatedAt, Long id) {
+
+    /**
+     * The order a keyset listing walks the products in; {@code id} breaks ties between equal
+     * {@code updatedAt} values.
+     */
+    public enum Key {
+        ID, UPDATED_AT
+    }
+
+    public static ProductCursor after(Key key, Product product) {
+        return new ProductCursor(key, key == Key.UPDATED_AT ? product.getUpdatedAt() : null, product.getId());
+    }
+
+    public String encode() {
+        String position = key == Key.UPDATED_AT ? key + "|" + updatedAt + "|" + id : key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code cursor} was not produced by {@link #encode()}
+     */
+    public static ProductCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            Key key = Key.valueOf(parts[0]);
+            if (key == Key.UPDATED_AT && parts.length == 3) {
+                return new ProductCursor(key, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            }
+            if (key == Key.ID && parts.length == 2) {
+                return new ProductCursor(key, null, Long.valueOf(parts[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.shoppingcart.multitenant.dto;
+
+import com.shoppingcart.multitenant.model.Product;
+
+import java.util.List;
+
+/**
+ * One keyset page of products.
+ *
+ * @param nextCursor the cursor of the following page, {@code null} on the last page
+ */
+public record ProductCursorPage(List<Product> content, String nextCursor) {
+}
@@ -0,0 +1,26 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.util.List;
+
+/**
+ * Progress of a tenant's bulk import; the final report once the import has ended.
+ *
+ * @param rows      data rows read so far
+ * @param committed rows up to which all valid products are stored, so a failed import can resend the
+ *                  remainder
+ * @param errors    the first rejected rows, with the reason
+ */
+public record ProductImportReport(Status status, long rows, long committed, long inserted, long updated,
+                                  long rejected, List<RowError> errors, String failure) {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * @param row data row number, counted like {@code rows} and {@code committed}: the CSV header and
+     *            blank lines are skipped
+     */
+    public record RowError(long row, String sku, String message) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.shoppingcart.multitenant.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One product of a bulk import, identified by its SKU. Absent optional fields leave an existing
+ * product's values unchanged.
+ */
+public record ProductImportRow(String sku, String name, String description, BigDecimal basePrice,
+                               Integer stockQuantity, String category, String brand, List<String> imageUrls,
+                               Boolean active) {
+}
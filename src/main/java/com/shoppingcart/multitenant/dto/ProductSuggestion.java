@@ -0,0 +1,13 @@
+package com.shoppingcart.multitenant.dto;
+
+/**
+ * A completion for a search box prefix.
+ *
+ * @param products number of active products with this name, SKU, brand or category
+ */
+public record ProductSuggestion(String text, Type type, int products) {
+
+    public enum Type {
+        NAME, SKU, BRAND, CATEGORY
+    }
+}
@@ -0,0 +1,8 @@
+package com.shoppingcart.multitenant.dto;
+
+/**
+ * The searchable text of an active product, read without loading the entity for building the search
+ * and suggestion indexes.
+ */
+public record ProductTextRow(Long id, String name, String sku, String brand, String category, String description) {
+}
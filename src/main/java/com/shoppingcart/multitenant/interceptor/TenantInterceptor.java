@@ -1,36 +1,93 @@
 package com.shoppingcart.multitenant.interceptor;
 
+import com.shoppingcart.multitenant.config.ConnectionBudgetExhaustedException;
 import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.metrics.TenantMetrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
+import java.io.IOException;
+
+/**
+ * Binds the tenant a request is for, taken from the {@code X-Tenant-ID} header, the subdomain or a
+ * {@code /tenant/<id>} path, and falling back to the default tenant.
+ *
+ * <p>A tenant named in the header or the path that the {@link TenantRegistry} does not know is
+ * rejected with 400, so that the bound tenant can be used as a key for per-tenant state without a
+ * client creating entries, counters or meters for arbitrary names. The subdomain is only a hint: IP
+ * addresses and first host labels that are not registered tenants, such as {@code api.example.com},
+ * fall through to the default tenant.
+ *
+ * <p>The tenant's connection pool is opened before the request is handled. If the connection budget
+ * leaves no room for it, the request is answered with 503 rather than failing halfway through a
+ * handler, whose own error mapping would report it as a client error.
+ */
 @Component
 public class TenantInterceptor implements HandlerInterceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(TenantInterceptor.class);
     private static final String TENANT_HEADER = "X-Tenant-ID";
+    private static final String TIMER_SAMPLE_ATTRIBUTE = TenantInterceptor.class.getName() + ".timerSample";
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired(required = false)
+    private TenantMetrics tenantMetrics;
 
     @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
         String tenantId = extractTenantId(request);
         
         if (tenantId == null || tenantId.trim().isEmpty()) {
-            tenantId = "default";
+            tenantId = TenantContext.DEFAULT_TENANT;
+        }
+        if (!tenantRegistry.isRegistered(tenantId)) {
+            logger.warn("Rejecting request for unknown tenant: {}", tenantId);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown tenant");
+            return false;
+        }
+        try {
+            tenantRegistry.ensurePoolOpen(tenantId);
+        } catch (ConnectionBudgetExhaustedException e) {
+            logger.warn("Rejecting request for tenant {}: {}", tenantId, e.getMessage());
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Connection budget exhausted");
+            return false;
         }
         
         logger.debug("Setting tenant context to: {}", tenantId);
         TenantContext.setCurrentTenant(tenantId);
+        if (tenantMetrics != null) {
+            request.setAttribute(TIMER_SAMPLE_ATTRIBUTE, tenantMetrics.start());
+        }
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, 
                                Object handler, Exception ex) {
-        TenantContext.clear();
+        try {
+            Object sample = request.getAttribute(TIMER_SAMPLE_ATTRIBUTE);
+            if (sample instanceof Timer.Sample timerSample) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                tenantMetrics.stop(timerSample, TenantMetrics.REQUESTS, Tags.of(
+                    "method", request.getMethod(),
+                    "uri", uri != null ? uri.toString() : "UNKNOWN",
+                    "status", String.valueOf(response.getStatus())));
+            }
+        } finally {
+            TenantContext.clear();
+        }
     }
 
     private String extractTenantId(HttpServletRequest request) {
@@ -40,7 +97,7 @@ public class TenantInterceptor implements HandlerInterceptor {
         }
 
         String subdomain = extractSubdomain(request);
-        if (subdomain != null && !subdomain.equals("www")) {
+        if (subdomain != null && !subdomain.equals("www") && tenantRegistry.isRegistered(subdomain)) {
             return subdomain;
         }
 
@@ -49,12 +106,12 @@ public class TenantInterceptor implements HandlerInterceptor {
             return pathTenant;
         }
 
-        return "default";
+        return TenantContext.DEFAULT_TENANT;
     }
 
     private String extractSubdomain(HttpServletRequest request) {
         String serverName = request.getServerName();
-        if (serverName != null && serverName.contains(".")) {
+        if (serverName != null && serverName.contains(".") && !isIpAddress(serverName)) {
             String[] parts = serverName.split("\\.");
             if (parts.length > 2) {
                 return parts[0];
@@ -63,6 +120,10 @@ public class TenantInterceptor implements HandlerInterceptor {
         return null;
     }
 
+    private boolean isIpAddress(String serverName) {
+        return serverName.contains(":") || serverName.chars().allMatch(c -> c == '.' || Character.isDigit(c));
+    }
+
     private String extractFromPath(HttpServletRequest request) {
         String path = request.getRequestURI();
         if (path.startsWith("/tenant/")) {
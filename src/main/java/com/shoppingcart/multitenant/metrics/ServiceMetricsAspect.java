@@ -0,0 +1,42 @@
+package com.shoppingcart.multitenant.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the cart, price and promotion services per tenant, as
+ * {@value TenantMetrics#SERVICE_CALLS} tagged with the class, method and exception (if any).
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private final TenantMetrics tenantMetrics;
+
+    public ServiceMetricsAspect(TenantMetrics tenantMetrics) {
+        this.tenantMetrics = tenantMetrics;
+    }
+
+    @Around("execution(public * com.shoppingcart.multitenant.service.CartService.*(..))"
+        + " || execution(public * com.shoppingcart.multitenant.service.PriceService.*(..))"
+        + " || execution(public * com.shoppingcart.multitenant.service.PromotionService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = tenantMetrics.start();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            tenantMetrics.stop(sample, TenantMetrics.SERVICE_CALLS, Tags.of(
+                "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getSignature().getName(),
+                "exception", exception));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shoppingcart.multitenant.metrics;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records timers tagged with the tenant of the current thread, as set in {@link TenantContext}.
+ *
+ * <p>The number of distinct {@value #TENANT_TAG} values is capped by {@link TenantTagLimiter}.
+ */
+@Component
+public class TenantMetrics {
+
+    public static final String TENANT_TAG = "tenant";
+
+    public static final String REQUESTS = "tenant.http.requests";
+
+    public static final String CONNECTION_ACQUIRE = "tenant.datasource.connection.acquire";
+
+    public static final String SERVICE_CALLS = "tenant.service.calls";
+
+    private final MeterRegistry registry;
+
+    public TenantMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stops {@code sample} on the timer {@code name}, tagged with the current tenant and {@code tags}.
+     */
+    public void stop(Timer.Sample sample, String name, Tags tags) {
+        sample.stop(registry.timer(name, tags.and(Tag.of(TENANT_TAG, TenantContext.getCurrentTenantOrDefault()))));
+    }
+}
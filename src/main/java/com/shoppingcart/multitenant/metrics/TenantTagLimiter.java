@@ -0,0 +1,69 @@
+package com.shoppingcart.multitenant.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Bounds the cardinality of the {@code tenant} tag. The first {@code maxTenants} tenants seen keep
+ * their own tag value; meters of any further tenant are folded into {@value #OVERFLOW_TENANT}, so a
+ * deployment with thousands of tenants still has a fixed number of series per meter. Values that are
+ * not a registered tenant are always folded and never take one of the slots.
+ */
+public class TenantTagLimiter implements MeterFilter {
+
+    public static final String OVERFLOW_TENANT = "other";
+
+    private final int maxTenants;
+
+    private final Predicate<String> registered;
+
+    private final Set<String> tagged = ConcurrentHashMap.newKeySet();
+
+    public TenantTagLimiter(int maxTenants, Predicate<String> registered) {
+        this.maxTenants = maxTenants;
+        this.registered = registered;
+    }
+
+    @Override
+    public Meter.Id map(Meter.Id id) {
+        String tenantId = id.getTag(TenantMetrics.TENANT_TAG);
+        if (tenantId == null || isTagged(tenantId)) {
+            return id;
+        }
+        List<Tag> tags = new ArrayList<>();
+        for (Tag tag : id.getTagsAsIterable()) {
+            boolean tenantTag = tag.getKey().equals(TenantMetrics.TENANT_TAG);
+            tags.add(tenantTag ? Tag.of(TenantMetrics.TENANT_TAG, OVERFLOW_TENANT) : tag);
+        }
+        return id.replaceTags(tags);
+    }
+
+    /**
+     * Whether the tenant keeps its own tag value, taking one of the free slots if it has none yet.
+     * Meters that report one object of a tenant, such as a cache's gauges, should only be registered
+     * for such tenants: folded into {@value #OVERFLOW_TENANT}, several tenants' meters share one id and
+     * only the first one registered is published.
+     */
+    public boolean isTagged(String tenantId) {
+        if (tagged.contains(tenantId)) {
+            return true;
+        }
+        if (!registered.test(tenantId)) {
+            return false;
+        }
+        synchronized (tagged) {
+            if (tagged.size() >= maxTenants) {
+                return false;
+            }
+            tagged.add(tenantId);
+            return true;
+        }
+    }
+}
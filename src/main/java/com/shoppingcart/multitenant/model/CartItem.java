@@ -1,6 +1,11 @@
 package com.shoppingcart.multitenant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.shoppingcart.multitenant.config.TenantSequenceStyleGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
@@ -10,10 +15,18 @@ import java.time.LocalDateTime;
 @Table(name = "cart_items")
 public class CartItem {
     
+    /**
+     * Taken from a pooled sequence, so that saving a cart with many new items batches the inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "cart_items_seq")
+    @GenericGenerator(name = "cart_items_seq", type = TenantSequenceStyleGenerator.class, parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "cart_items_seq"),
+        @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
     
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id", nullable = false)
     private Cart cart;
@@ -1,17 +1,33 @@
 package com.shoppingcart.multitenant.model;
 
+import com.shoppingcart.multitenant.config.TenantSequenceStyleGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prices")
+@Table(name = "prices", indexes = @Index(name = "idx_prices_price_book", columnList = "price_book_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Price {
     
+    /**
+     * Taken from a pooled sequence like product ids, so that the rows of a price book import are
+     * inserted in JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "prices_seq")
+    @GenericGenerator(name = "prices_seq", type = TenantSequenceStyleGenerator.class, parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "prices_seq"),
+        @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -40,6 +56,13 @@ public class Price {
     
     @Column(nullable = false)
     private Boolean active = true;
+
+    /**
+     * The {@link PriceBook} this price was imported with, or {@code null} for a price maintained on
+     * its own. Prices of a book only apply while the book is active.
+     */
+    @Column(name = "price_book_id")
+    private Long priceBookId;
     
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -124,6 +147,14 @@ public class Price {
         this.active = active;
     }
 
+    public Long getPriceBookId() {
+        return priceBookId;
+    }
+
+    public void setPriceBookId(Long priceBookId) {
+        this.priceBookId = priceBookId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
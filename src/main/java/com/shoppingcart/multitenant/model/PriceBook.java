@@ -0,0 +1,94 @@
+package com.shoppingcart.multitenant.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A versioned price list of a tenant. Its prices are stored while the book is imported and apply only
+ * while the book is {@link Status#ACTIVE active}; a tenant has at most one active book at a time.
+ */
+@Entity
+@Table(name = "price_books")
+public class PriceBook {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.IMPORTING;
+
+    @Column(name = "price_count", nullable = false)
+    private Long priceCount = 0L;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    public enum Status {
+        /** Prices are still being imported. */
+        IMPORTING,
+        /** Imported completely and not yet applied. */
+        STAGED,
+        /** The book prices are resolved against. */
+        ACTIVE,
+        /** Replaced by another book; can be activated again to roll back. */
+        RETIRED,
+        /** The import broke off, so the book is incomplete and cannot be activated. */
+        FAILED
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getPriceCount() {
+        return priceCount;
+    }
+
+    public void setPriceCount(Long priceCount) {
+        this.priceCount = priceCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getActivatedAt() {
+        return activatedAt;
+    }
+
+    public void setActivatedAt(LocalDateTime activatedAt) {
+        this.activatedAt = activatedAt;
+    }
+}
@@ -1,6 +1,9 @@
 package com.shoppingcart.multitenant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -10,6 +13,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "promotions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Promotion {
     
     @Id
@@ -45,7 +51,8 @@ public class Promotion {
     @Column(name = "usage_limit")
     private Integer usageLimit;
     
-    @Column(name = "usage_count")
+    // Only written by the batched increments of PromotionUsageCounter, never by entity saves.
+    @Column(name = "usage_count", updatable = false)
     private Integer usageCount = 0;
     
     @Column(name = "valid_from", nullable = false)
@@ -63,6 +70,7 @@ public class Promotion {
     private List<Product> applicableProducts;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "promotion_categories", joinColumns = @JoinColumn(name = "promotion_id"))
     @Column(name = "category")
     private List<String> applicableCategories;
@@ -1,6 +1,8 @@
 package com.shoppingcart.multitenant.repository;
 
+import com.shoppingcart.multitenant.dto.CartViewRow;
 import com.shoppingcart.multitenant.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,16 +10,42 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     
+    String VIEW_SELECT = "SELECT new com.shoppingcart.multitenant.dto.CartViewRow("
+        + "c.id, c.sessionId, c.userId, promotion.code, c.subtotal, c.discountAmount, c.totalAmount, c.updatedAt, "
+        + "p.id, p.name, p.sku, i.unitPrice, i.quantity, i.totalPrice) "
+        + "FROM Cart c LEFT JOIN c.appliedPromotion promotion LEFT JOIN c.items i LEFT JOIN i.product p ";
+    
+    /**
+     * Loads the cart together with its items, their products and the applied promotion in one query.
+     */
+    @EntityGraph(attributePaths = {"items", "items.product", "appliedPromotion"})
     Optional<Cart> findBySessionId(String sessionId);
     
+    @EntityGraph(attributePaths = {"items", "items.product", "appliedPromotion"})
     Optional<Cart> findByUserId(String userId);
     
+    /**
+     * Projection of the cart for read endpoints, one row per line item, without loading the entities.
+     */
+    @Query(VIEW_SELECT + "WHERE c.sessionId = :sessionId ORDER BY i.id")
+    List<CartViewRow> findViewBySessionId(@Param("sessionId") String sessionId);
+    
+    @Query(VIEW_SELECT + "WHERE c.userId = :userId ORDER BY i.id")
+    List<CartViewRow> findViewByUserId(@Param("userId") String userId);
+    
+    // Bulk deletes skip the cascade to the items, so the items have to go first.
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN " +
+           "(SELECT c.id FROM Cart c WHERE c.updatedAt < :cutoffDate)")
+    int deleteItemsOfAbandonedCarts(@Param("cutoffDate") LocalDateTime cutoffDate);
+
     @Modifying
     @Query("DELETE FROM Cart c WHERE c.updatedAt < :cutoffDate")
-    void deleteAbandonedCarts(@Param("cutoffDate") LocalDateTime cutoffDate);
+    int deleteAbandonedCarts(@Param("cutoffDate") LocalDateTime cutoffDate);
 }
\ No newline at end of file
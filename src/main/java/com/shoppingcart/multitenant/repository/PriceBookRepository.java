@@ -0,0 +1,31 @@
+package com.shoppingcart.multitenant.repository;
+
+import com.shoppingcart.multitenant.model.PriceBook;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceBookRepository extends JpaRepository<PriceBook, Long> {
+
+    List<PriceBook> findAllByOrderByIdDesc();
+
+    /**
+     * Locks every book of the tenant until the transaction ends, in id order so that concurrent
+     * callers cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM PriceBook b ORDER BY b.id")
+    List<PriceBook> findAllForUpdate();
+
+    @Modifying
+    @Query("UPDATE PriceBook b SET b.status = RETIRED " +
+           "WHERE b.status = ACTIVE AND b.id <> :id")
+    int retireActiveExcept(@Param("id") Long id);
+}
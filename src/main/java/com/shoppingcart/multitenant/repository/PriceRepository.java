@@ -3,20 +3,32 @@ package com.shoppingcart.multitenant.repository;
 import com.shoppingcart.multitenant.model.Price;
 import com.shoppingcart.multitenant.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PriceRepository extends JpaRepository<Price, Long> {
+
+    /**
+     * Prices in the tenant's active price book, or prices outside any book while no book is active.
+     */
+    String IN_EFFECT = "(p.priceBookId IN (SELECT b.id FROM PriceBook b WHERE b.status = ACTIVE) OR " +
+                       "(p.priceBookId IS NULL AND NOT EXISTS (SELECT b FROM PriceBook b WHERE b.status = ACTIVE)))";
     
-    List<Price> findByProductAndActiveTrue(Product product);
+    @Query("SELECT p FROM Price p WHERE p.product = :product AND p.active = true AND " + IN_EFFECT)
+    List<Price> findByProductAndActiveTrue(@Param("product") Product product);
+
+    @Query("SELECT p FROM Price p WHERE p.product IN :products AND p.active = true AND " + IN_EFFECT)
+    List<Price> findByProductInAndActiveTrue(@Param("products") Collection<Product> products);
     
-    @Query("SELECT p FROM Price p WHERE p.product = :product AND p.active = true AND " +
+    @Query("SELECT p FROM Price p WHERE p.product = :product AND p.active = true AND " + IN_EFFECT + " AND " +
            "(p.validFrom IS NULL OR p.validFrom <= :now) AND " +
            "(p.validTo IS NULL OR p.validTo >= :now) AND " +
            "(:customerGroup IS NULL OR p.customerGroup IS NULL OR p.customerGroup = :customerGroup) AND " +
@@ -27,5 +39,10 @@ public interface PriceRepository extends JpaRepository<Price, Long> {
                                      @Param("quantity") Integer quantity,
                                      @Param("now") LocalDateTime now);
     
-    List<Price> findByPriceTypeAndActiveTrue(String priceType);
+    @Query("SELECT p FROM Price p WHERE p.priceType = :priceType AND p.active = true AND " + IN_EFFECT)
+    List<Price> findByPriceTypeAndActiveTrue(@Param("priceType") String priceType);
+
+    @Modifying
+    @Query("DELETE FROM Price p WHERE p.priceBookId = :priceBookId")
+    int deleteByPriceBookId(@Param("priceBookId") Long priceBookId);
 }
\ No newline at end of file
@@ -1,24 +1,58 @@
 package com.shoppingcart.multitenant.repository;
 
+import com.shoppingcart.multitenant.dto.ProductTextRow;
 import com.shoppingcart.multitenant.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Optional<Product> findBySku(String sku);
+
+    List<Product> findBySkuIn(Collection<String> skus);
     
     List<Product> findByActiveTrue();
     
     Page<Product> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Like {@link #findByActiveTrue(Pageable)} without the count query.
+     */
+    Slice<Product> findSliceByActiveTrue(Pageable pageable);
+
+    /**
+     * Keyset page of active products ordered by id; pass {@code 0} for the first page and limit the
+     * size with {@code PageRequest.of(0, size)}.
+     */
+    @Query("SELECT p FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActiveAfterId(@Param("afterId") Long afterId, Pageable limit);
+
+    List<Product> findByActiveTrueOrderByUpdatedAtAscIdAsc(Pageable limit);
+
+    /**
+     * Keyset page of active products ordered by {@code updatedAt}, then id, following the given
+     * position; the first page comes from {@link #findByActiveTrueOrderByUpdatedAtAscIdAsc}.
+     */
+    @Query("SELECT p FROM Product p WHERE p.active = true AND " +
+           "(p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :afterId)) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<Product> findActiveUpdatedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                         @Param("afterId") Long afterId, Pageable limit);
     
     List<Product> findByCategory(String category);
     
@@ -32,4 +66,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.stockQuantity > 0")
     List<Product> findInStockProducts();
+
+    /**
+     * Active products with an id above {@code afterId}, in id order, read through a JDBC cursor; must be
+     * consumed and closed within a transaction. MySQL only streams rows when the URL sets
+     * {@code useCursorFetch=true}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    Stream<Product> streamActiveProductsAfter(@Param("afterId") Long afterId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p WHERE p.active = true AND p.stockQuantity > 0 ORDER BY p.id")
+    Stream<Product> streamInStockProducts();
+
+    /**
+     * The searchable text of every active product, read through a JDBC cursor like
+     * {@link #streamActiveProductsAfter} but without managing or caching the entities.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.shoppingcart.multitenant.dto.ProductTextRow(" +
+           "p.id, p.name, p.sku, p.brand, p.category, p.description) FROM Product p WHERE p.active = true")
+    Stream<ProductTextRow> streamActiveProductText();
 }
\ No newline at end of file
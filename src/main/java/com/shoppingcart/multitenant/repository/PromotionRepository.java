@@ -1,12 +1,15 @@
 package com.shoppingcart.multitenant.repository;
 
 import com.shoppingcart.multitenant.model.Promotion;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,16 @@ import java.util.Optional;
 public interface PromotionRepository extends JpaRepository<Promotion, Long> {
     
     Optional<Promotion> findByCodeAndActiveTrue(String code);
+
+    List<Promotion> findByActiveTrue();
+
+    /**
+     * Locks the given promotions until the transaction ends, in id order so that concurrent callers
+     * cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Promotion p WHERE p.id IN :ids ORDER BY p.id")
+    List<Promotion> findAllForUpdate(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT p FROM Promotion p WHERE p.active = true AND " +
            "p.validFrom <= :now AND p.validTo >= :now AND " +
@@ -0,0 +1,322 @@
+package com.shoppingcart.multitenant.search;
+
+import com.shoppingcart.multitenant.config.TenantAwareExecutor;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductTextRow;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant, in-memory inverted index over the name, category and description of active products,
+ * enabled unless {@code products.search.index.enabled} is {@code false}.
+ *
+ * <p>A tenant's index is built in the background from the text of its active products, starting with
+ * the first search, and then kept current by {@link #index} and {@link #remove}, which
+ * {@code ProductService} calls on every write; the changes are applied once the surrounding transaction
+ * commits. The index is rebuilt after {@code products.search.index.ttl} so that writes made by other
+ * application instances are picked up, and searches keep using the old index meanwhile (see
+ * {@link TenantIndexes}). Until a tenant's first build has finished, {@link #search} returns nothing and
+ * the caller falls back to the database.
+ *
+ * <p>Every query term must match; the last one also matches as a prefix, so results narrow as the user
+ * types. Hits are ranked with BM25, with matches in the name weighted above the category and the
+ * description, and only the requested page of products is loaded from the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.search.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    static final int NAME_WEIGHT = 3;
+
+    static final int CATEGORY_WEIGHT = 2;
+
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final TenantIndexes<TenantIndex> tenants = new TenantIndexes<>("search index", this::build);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantAwareExecutor executor;
+
+    @Value("${products.search.index.ttl:PT10M}")
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Returns the requested page of active products matching {@code query}, best match first, or nothing
+     * while the current tenant's index is still being built.
+     */
+    public Optional<Page<Product>> search(String query, Pageable pageable) {
+        TenantIndex index = tenants.get(TenantContext.getCurrentTenantOrDefault(), ttl, executor);
+        if (index == null) {
+            return Optional.empty();
+        }
+        List<String> terms = TextAnalyzer.terms(query);
+        if (terms.isEmpty()) {
+            return Optional.of(Page.empty(pageable));
+        }
+        int limit = pageable.isPaged() ? (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize())
+            : Integer.MAX_VALUE;
+        Hits hits = index.search(terms, limit);
+
+        List<Long> pageIds = pageable.isPaged()
+            ? hits.ranked().subList((int) Math.min(pageable.getOffset(), hits.ranked().size()), hits.ranked().size())
+            : hits.ranked();
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(pageIds)) {
+            products.put(product.getId(), product);
+        }
+        List<Product> content = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Product product = products.get(id);
+            if (product != null) {
+                content.add(product);
+            }
+        }
+        return Optional.of(new PageImpl<>(content, pageable, hits.total()));
+    }
+
+    /**
+     * Adds or replaces the product for the current tenant, or drops it if it is inactive.
+     */
+    public void index(Product product) {
+        Document document = Boolean.FALSE.equals(product.getActive()) ? null
+            : Document.of(product.getName(), product.getCategory(), product.getDescription());
+        Long id = product.getId();
+        afterCommit(index -> {
+            if (document != null) {
+                index.put(id, document);
+            } else {
+                index.remove(id);
+            }
+        });
+    }
+
+    public void remove(Long productId) {
+        afterCommit(index -> index.remove(productId));
+    }
+
+    /**
+     * Rebuilds the current tenant's index in the background.
+     */
+    public void invalidateAll() {
+        tenants.invalidate(TenantContext.getCurrentTenantOrDefault(), executor);
+    }
+
+    private void afterCommit(Consumer<TenantIndex> change) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        Runnable apply = () -> tenants.apply(tenantId, change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private TenantIndex build() {
+        TenantIndex index = new TenantIndex();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<ProductTextRow> rows = productRepository.streamActiveProductText()) {
+                rows.forEach(row -> index.put(row.id(), Document.of(row.name(), row.category(), row.description())));
+            }
+        });
+        logger.info("Built search index of {} products ({} terms) for tenant: {}",
+            index.documents.size(), index.postings.size(), TenantContext.getCurrentTenantOrDefault());
+        return index;
+    }
+
+    /**
+     * Weighted term frequencies of one product.
+     */
+    record Document(Map<String, Integer> frequencies, int length) {
+
+        static Document of(String name, String category, String description) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            add(frequencies, name, NAME_WEIGHT);
+            add(frequencies, category, CATEGORY_WEIGHT);
+            add(frequencies, description, DESCRIPTION_WEIGHT);
+            int length = 0;
+            for (int frequency : frequencies.values()) {
+                length += frequency;
+            }
+            return new Document(frequencies, length);
+        }
+
+        private static void add(Map<String, Integer> frequencies, String text, int weight) {
+            for (String term : TextAnalyzer.terms(text)) {
+                frequencies.merge(term, weight, Integer::sum);
+            }
+        }
+    }
+
+    record Hits(List<Long> ranked, long total) {
+    }
+
+    static class TenantIndex {
+
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private long totalLength;
+
+        void put(Long id, Document document) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+                documents.put(id, document);
+                totalLength += document.length();
+                document.frequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Scores the documents that match every term, the last one as a prefix, and returns the ids of
+         * the best {@code limit} of them in rank order along with the total number of matches.
+         */
+        Hits search(List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                if (documents.isEmpty()) {
+                    return new Hits(List.of(), 0);
+                }
+                double averageLength = (double) totalLength / documents.size();
+                Map<Long, Double> scores = null;
+                for (int i = 0; i < terms.size(); i++) {
+                    String term = terms.get(i);
+                    Map<String, Map<Long, Integer>> matching = i == terms.size() - 1
+                        ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                        : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+                    Map<Long, Double> termScores = score(matching, averageLength);
+                    scores = scores == null ? termScores : intersect(scores, termScores);
+                    if (scores.isEmpty()) {
+                        return new Hits(List.of(), 0);
+                    }
+                }
+                return top(scores, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Map<Long, Double> score(Map<String, Map<Long, Integer>> matching, double averageLength) {
+            Map<Long, Double> scores = new HashMap<>();
+            int documentCount = documents.size();
+            for (Map<Long, Integer> posting : matching.values()) {
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, frequency) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                    // A prefix matching several terms of one document counts its best term only.
+                    scores.merge(id, score, Math::max);
+                });
+            }
+            return scores;
+        }
+
+        private static Map<Long, Double> intersect(Map<Long, Double> scores, Map<Long, Double> termScores) {
+            Map<Long, Double> result = new HashMap<>();
+            scores.forEach((id, score) -> {
+                Double termScore = termScores.get(id);
+                if (termScore != null) {
+                    result.put(id, score + termScore);
+                }
+            });
+            return result;
+        }
+
+        private static Hits top(Map<Long, Double> scores, int limit) {
+            Comparator<Map.Entry<Long, Double>> rank = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(rank);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.add(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Long> ranked = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                ranked.add(best.poll().getKey());
+            }
+            Collections.reverse(ranked);
+            return new Hits(ranked, scores.size());
+        }
+
+        private void removeDocument(Long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            totalLength -= previous.length();
+            for (String term : previous.frequencies().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
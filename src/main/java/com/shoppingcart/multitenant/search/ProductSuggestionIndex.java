@@ -0,0 +1,437 @@
+package com.shoppingcart.multitenant.search;
+
+import com.shoppingcart.multitenant.config.TenantAwareExecutor;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductSuggestion;
+import com.shoppingcart.multitenant.dto.ProductTextRow;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant prefix index of product names, SKUs, brands and categories for search-as-you-type,
+ * enabled unless {@code products.search.suggest.enabled} is {@code false}.
+ *
+ * <p>Suggestions live in a character trie whose children are kept in sorted arrays. Each suggestion is
+ * reachable from the start of every word it contains, so "mou" finds "Wireless Mouse". Every node keeps
+ * the best {@code products.search.suggest.max-results} suggestions below it, ranked by how many active products
+ * share them. A lookup therefore only walks the prefix and copies that list. Product writes update the
+ * suggestions and the affected paths incrementally once the transaction commits.
+ *
+ * <p>As with the search index, a tenant's trie is built in the background, starting with its first
+ * lookup, and rebuilt after {@code products.search.suggest.ttl} while lookups keep using the old one
+ * (see {@link TenantIndexes}); until the first build has finished there are no suggestions. A build
+ * counts the suggestions of all products first and then ranks every node once, bottom-up.
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.search.suggest", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    private static final Comparator<Suggestion> RANK = Comparator
+        .comparingInt((Suggestion suggestion) -> suggestion.products).reversed()
+        .thenComparingInt(suggestion -> suggestion.text.length())
+        .thenComparing(suggestion -> suggestion.text)
+        .thenComparing(suggestion -> suggestion.type);
+
+    private final TenantIndexes<TenantTrie> tenants = new TenantIndexes<>("suggestion index", this::build);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantAwareExecutor executor;
+
+    @Value("${products.search.suggest.max-results:10}")
+    private int maxResults = 10;
+
+    @Value("${products.search.suggest.ttl:PT10M}")
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Returns up to {@code limit} suggestions (capped at {@code products.search.suggest.max-results}) that
+     * contain a word starting with {@code prefix}, most common first; none while the current tenant's
+     * trie is still being built.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        TenantTrie trie = tenants.get(TenantContext.getCurrentTenantOrDefault(), ttl, executor);
+        return trie != null ? trie.suggest(key, Math.min(limit, maxResults)) : List.of();
+    }
+
+    /**
+     * Adds or replaces the product's suggestions for the current tenant, or drops them if it is
+     * inactive.
+     */
+    public void index(Product product) {
+        List<SuggestionKey> keys = Boolean.FALSE.equals(product.getActive()) ? List.of()
+            : keysOf(product.getName(), product.getSku(), product.getBrand(), product.getCategory());
+        Long id = product.getId();
+        afterCommit(trie -> trie.put(id, keys));
+    }
+
+    public void remove(Long productId) {
+        afterCommit(trie -> trie.put(productId, List.of()));
+    }
+
+    /**
+     * Rebuilds the current tenant's trie in the background.
+     */
+    public void invalidateAll() {
+        tenants.invalidate(TenantContext.getCurrentTenantOrDefault(), executor);
+    }
+
+    private void afterCommit(Consumer<TenantTrie> change) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        Runnable apply = () -> tenants.apply(tenantId, change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private TenantTrie build() {
+        Map<Long, List<SuggestionKey>> productKeys = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<ProductTextRow> rows = productRepository.streamActiveProductText()) {
+                rows.forEach(row -> productKeys.put(row.id(), keysOf(row.name(), row.sku(), row.brand(), row.category())));
+            }
+        });
+        TenantTrie trie = new TenantTrie(maxResults, productKeys);
+        logger.info("Built suggestion index of {} products for tenant: {}",
+            productKeys.size(), TenantContext.getCurrentTenantOrDefault());
+        return trie;
+    }
+
+    private static List<SuggestionKey> keysOf(String name, String sku, String brand, String category) {
+        List<SuggestionKey> keys = new ArrayList<>(4);
+        addKey(keys, name, ProductSuggestion.Type.NAME);
+        addKey(keys, sku, ProductSuggestion.Type.SKU);
+        addKey(keys, brand, ProductSuggestion.Type.BRAND);
+        addKey(keys, category, ProductSuggestion.Type.CATEGORY);
+        return keys;
+    }
+
+    private static void addKey(List<SuggestionKey> keys, String text, ProductSuggestion.Type type) {
+        if (text != null && !normalize(text).isEmpty()) {
+            keys.add(new SuggestionKey(text.trim(), type));
+        }
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", TextAnalyzer.terms(text));
+    }
+
+    record SuggestionKey(String text, ProductSuggestion.Type type) {
+    }
+
+    private static final class Suggestion {
+
+        private final String text;
+
+        private final ProductSuggestion.Type type;
+
+        private int products;
+
+        Suggestion(String text, ProductSuggestion.Type type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+        private char[] labels = NO_LABELS;
+
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * Suggestions whose text, read from one of its word starts, ends at this node.
+         */
+        private Suggestion[] terminals = NO_SUGGESTIONS;
+
+        /**
+         * The best suggestions in this subtree, in rank order.
+         */
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insert = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            newLabels[insert] = label;
+            newChildren[insert] = child;
+            System.arraycopy(labels, insert, newLabels, insert + 1, labels.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(Node child) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    char[] newLabels = new char[labels.length - 1];
+                    Node[] newChildren = new Node[children.length - 1];
+                    System.arraycopy(labels, 0, newLabels, 0, i);
+                    System.arraycopy(children, 0, newChildren, 0, i);
+                    System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+                    System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+                    labels = newLabels;
+                    children = newChildren;
+                    return;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return children.length == 0 && terminals.length == 0;
+        }
+    }
+
+    static final class TenantTrie {
+
+        private final Node root = new Node();
+
+        private final Map<SuggestionKey, Suggestion> suggestions = new HashMap<>();
+
+        private final Map<Long, List<SuggestionKey>> productKeys = new HashMap<>();
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final int maxResults;
+
+        TenantTrie(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        /**
+         * Builds the trie of the given products in one pass: counts their suggestions, adds each one at
+         * the end of its word-start paths, and then ranks every node once from its terminals and its
+         * children's lists, leaves first.
+         */
+        TenantTrie(int maxResults, Map<Long, List<SuggestionKey>> productKeys) {
+            this.maxResults = maxResults;
+            productKeys.forEach((productId, keys) -> {
+                if (!keys.isEmpty()) {
+                    this.productKeys.put(productId, keys);
+                    for (SuggestionKey key : keys) {
+                        suggestions.computeIfAbsent(key, k -> new Suggestion(k.text(), k.type())).products++;
+                    }
+                }
+            });
+            for (Suggestion suggestion : suggestions.values()) {
+                for (String key : pathKeys(suggestion)) {
+                    Node node = root;
+                    for (int i = 0; i < key.length(); i++) {
+                        node = node.childOrCreate(key.charAt(i));
+                    }
+                    node.terminals = with(node.terminals, suggestion);
+                }
+            }
+            rankSubtree(root);
+        }
+
+        List<ProductSuggestion> suggest(String prefix, int limit) {
+            lock.readLock().lock();
+            try {
+                Node node = root;
+                for (int i = 0; i < prefix.length() && node != null; i++) {
+                    node = node.child(prefix.charAt(i));
+                }
+                if (node == null) {
+                    return List.of();
+                }
+                List<ProductSuggestion> result = new ArrayList<>(Math.min(limit, node.top.length));
+                for (int i = 0; i < node.top.length && i < limit; i++) {
+                    Suggestion suggestion = node.top[i];
+                    result.add(new ProductSuggestion(suggestion.text, suggestion.type, suggestion.products));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Replaces the suggestions the product contributes; an empty list removes the product.
+         */
+        void put(Long productId, List<SuggestionKey> keys) {
+            lock.writeLock().lock();
+            try {
+                List<SuggestionKey> previous = keys.isEmpty() ? productKeys.remove(productId) : productKeys.put(productId, keys);
+                if (previous != null) {
+                    for (SuggestionKey key : previous) {
+                        Suggestion suggestion = suggestions.get(key);
+                        suggestion.products--;
+                        if (suggestion.products == 0) {
+                            suggestions.remove(key);
+                        }
+                        update(suggestion);
+                    }
+                }
+                for (SuggestionKey key : keys) {
+                    Suggestion suggestion = suggestions.computeIfAbsent(key, k -> new Suggestion(k.text(), k.type()));
+                    suggestion.products++;
+                    update(suggestion);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Re-ranks every path the suggestion is reachable by, adding it to or removing it from the
+         * trie as its product count requires.
+         */
+        private void update(Suggestion suggestion) {
+            for (String key : pathKeys(suggestion)) {
+                List<Node> path = new ArrayList<>(key.length() + 1);
+                Node node = root;
+                path.add(node);
+                for (int i = 0; i < key.length(); i++) {
+                    node = suggestion.products > 0 ? node.childOrCreate(key.charAt(i)) : node.child(key.charAt(i));
+                    if (node == null) {
+                        break;
+                    }
+                    path.add(node);
+                }
+                if (node == null) {
+                    continue;
+                }
+                node.terminals = suggestion.products > 0 ? with(node.terminals, suggestion) : without(node.terminals, suggestion);
+                rerank(path, key);
+            }
+        }
+
+        private void rerank(List<Node> path, String key) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (i > 0 && node.isEmpty()) {
+                    path.get(i - 1).removeChild(node);
+                    continue;
+                }
+                rank(node);
+            }
+        }
+
+        private void rankSubtree(Node node) {
+            for (Node child : node.children) {
+                rankSubtree(child);
+            }
+            rank(node);
+        }
+
+        /**
+         * Sets the node's top list from its terminals and its children's top lists, which must be
+         * current. A suggestion reachable through several children is counted once. Top lists are never
+         * modified once set, so a node on a single path shares its child's list.
+         */
+        private void rank(Node node) {
+            if (node.terminals.length == 0 && node.children.length == 1) {
+                node.top = node.children[0].top;
+                return;
+            }
+            int size = node.terminals.length;
+            for (Node child : node.children) {
+                size += child.top.length;
+            }
+            Suggestion[] candidates = Arrays.copyOf(node.terminals, size);
+            int next = node.terminals.length;
+            for (Node child : node.children) {
+                System.arraycopy(child.top, 0, candidates, next, child.top.length);
+                next += child.top.length;
+            }
+            // RANK orders distinct suggestions strictly, so copies of one suggestion end up adjacent.
+            Arrays.sort(candidates, RANK);
+            Suggestion[] top = new Suggestion[Math.min(maxResults, candidates.length)];
+            int count = 0;
+            for (int i = 0; i < candidates.length && count < top.length; i++) {
+                if (i == 0 || candidates[i] != candidates[i - 1]) {
+                    top[count++] = candidates[i];
+                }
+            }
+            node.top = count == top.length ? top : Arrays.copyOf(top, count);
+        }
+
+        /**
+         * The keys the suggestion is reachable by: its normalized text read from each of its words.
+         */
+        private static List<String> pathKeys(Suggestion suggestion) {
+            List<String> words = TextAnalyzer.terms(suggestion.text);
+            List<String> keys = new ArrayList<>(words.size());
+            for (int start = 0; start < words.size(); start++) {
+                keys.add(String.join(" ", words.subList(start, words.size())));
+            }
+            return keys;
+        }
+
+        private static Suggestion[] with(Suggestion[] suggestions, Suggestion suggestion) {
+            for (Suggestion existing : suggestions) {
+                if (existing == suggestion) {
+                    return suggestions;
+                }
+            }
+            Suggestion[] result = Arrays.copyOf(suggestions, suggestions.length + 1);
+            result[suggestions.length] = suggestion;
+            return result;
+        }
+
+        private static Suggestion[] without(Suggestion[] suggestions, Suggestion suggestion) {
+            return Arrays.stream(suggestions).filter(existing -> existing != suggestion).toArray(Suggestion[]::new);
+        }
+    }
+}
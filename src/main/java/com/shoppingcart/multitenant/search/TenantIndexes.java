@@ -0,0 +1,166 @@
+package com.shoppingcart.multitenant.search;
+
+import com.shoppingcart.multitenant.config.TenantAwareExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One in-memory index per tenant, built and rebuilt in the background.
+ *
+ * <p>A tenant's index is built on its first lookup, again once it is older than the ttl, and after
+ * {@link #invalidate}. Builds run on the {@link TenantAwareExecutor}, at most one per tenant at a time,
+ * so a build never holds up a request or another tenant. Lookups keep using the previous index until
+ * the new one is swapped in; until a tenant's first build has finished there is none.
+ *
+ * <p>Changes are applied to the current index and, while a build runs, also queued and replayed onto
+ * the new index before it is swapped in, so that the new index does not miss writes committed after it
+ * read them. Changes must therefore be idempotent replacements of one product's entry.
+ */
+final class TenantIndexes<I> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantIndexes.class);
+
+    private final String name;
+
+    private final Supplier<I> builder;
+
+    private final Map<String, Slot<I>> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * @param name    what the index is called in log messages
+     * @param builder builds the index of the tenant bound in {@code TenantContext}
+     */
+    TenantIndexes(String name, Supplier<I> builder) {
+        this.name = name;
+        this.builder = builder;
+    }
+
+    /**
+     * Returns the tenant's index, or {@code null} while its first build is running, and starts a build
+     * if there is no index yet or it is older than {@code ttl}.
+     */
+    I get(String tenantId, Duration ttl, TenantAwareExecutor executor) {
+        Slot<I> slot = tenants.computeIfAbsent(tenantId, id -> new Slot<>());
+        if (slot.index == null || System.nanoTime() - slot.builtAt >= ttl.toNanos()) {
+            startBuild(tenantId, slot, executor);
+        }
+        return slot.index;
+    }
+
+    /**
+     * Rebuilds the tenant's index, keeping the current one until the new one is ready.
+     */
+    void invalidate(String tenantId, TenantAwareExecutor executor) {
+        Slot<I> slot = tenants.get(tenantId);
+        if (slot == null) {
+            return;
+        }
+        slot.lock.lock();
+        try {
+            if (slot.pending != null) {
+                slot.stale = true;
+                return;
+            }
+        } finally {
+            slot.lock.unlock();
+        }
+        startBuild(tenantId, slot, executor);
+    }
+
+    /**
+     * Applies {@code change} to the tenant's index and to the one being built, if any.
+     */
+    void apply(String tenantId, Consumer<I> change) {
+        Slot<I> slot = tenants.get(tenantId);
+        if (slot == null) {
+            return;
+        }
+        slot.lock.lock();
+        try {
+            if (slot.index != null) {
+                change.accept(slot.index);
+            }
+            if (slot.pending != null) {
+                slot.pending.add(change);
+            }
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private void startBuild(String tenantId, Slot<I> slot, TenantAwareExecutor executor) {
+        slot.lock.lock();
+        try {
+            if (slot.pending != null) {
+                return;
+            }
+            slot.pending = new ArrayList<>();
+            slot.stale = false;
+        } finally {
+            slot.lock.unlock();
+        }
+        try {
+            executor.runAsync(() -> build(tenantId, slot, executor));
+        } catch (RuntimeException e) {
+            logger.warn("Could not start building the {} for tenant: {}", name, tenantId, e);
+            finish(slot, null);
+        }
+    }
+
+    private void build(String tenantId, Slot<I> slot, TenantAwareExecutor executor) {
+        I index = null;
+        try {
+            index = builder.get();
+        } catch (RuntimeException e) {
+            logger.warn("Could not build the {} for tenant: {}", name, tenantId, e);
+        }
+        if (finish(slot, index)) {
+            startBuild(tenantId, slot, executor);
+        }
+    }
+
+    /**
+     * Replays the queued changes onto {@code index} and swaps it in.
+     *
+     * @return whether the index was invalidated while it was built
+     */
+    private boolean finish(Slot<I> slot, I index) {
+        slot.lock.lock();
+        try {
+            if (index != null) {
+                slot.pending.forEach(change -> change.accept(index));
+                slot.index = index;
+                slot.builtAt = System.nanoTime();
+            }
+            slot.pending = null;
+            return index != null && slot.stale;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private static final class Slot<I> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile I index;
+
+        private volatile long builtAt;
+
+        /**
+         * Changes applied since the running build started, or {@code null} if none is running.
+         */
+        private List<Consumer<I>> pending;
+
+        private boolean stale;
+    }
+}
@@ -0,0 +1,49 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantFanOutExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly removal of abandoned carts for every registered tenant, run through the
+ * {@link TenantFanOutExecutor} so that tenants on different database hosts are cleaned in parallel.
+ * Enabled unless {@code carts.cleanup.enabled} is {@code false}.
+ *
+ * <p>The scheduled run is handed to the application task executor, because waiting for the fan-out on
+ * the single scheduler thread would hold up the other scheduled tasks, such as the write-behind flushes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "carts.cleanup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AbandonedCartCleanupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartCleanupJob.class);
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private TenantFanOutExecutor fanOutExecutor;
+
+    @Value("${carts.cleanup.days-old:7}")
+    private int daysOld = 7;
+
+    @Async
+    @Scheduled(cron = "${carts.cleanup.cron:0 0 3 * * *}")
+    public void run() {
+        cleanupAllTenants();
+    }
+
+    public TenantFanOutExecutor.Result<Integer> cleanupAllTenants() {
+        TenantFanOutExecutor.Result<Integer> result =
+            fanOutExecutor.forEachTenant(() -> cartService.cleanupAbandonedCarts(daysOld));
+        logger.info("Removed {} abandoned carts across {} tenants ({} failed)",
+            result.merge(0, Integer::sum), result.results().size(), result.failures().size());
+        return result;
+    }
+}
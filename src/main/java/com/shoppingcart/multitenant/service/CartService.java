@@ -1,9 +1,10 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.dto.CartView;
+import com.shoppingcart.multitenant.dto.CartViewRow;
 import com.shoppingcart.multitenant.model.Cart;
 import com.shoppingcart.multitenant.model.CartItem;
 import com.shoppingcart.multitenant.model.Product;
-import com.shoppingcart.multitenant.model.Promotion;
 import com.shoppingcart.multitenant.repository.CartRepository;
 import com.shoppingcart.multitenant.repository.ProductRepository;
 import org.slf4j.Logger;
@@ -14,7 +15,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -37,17 +40,20 @@ public class CartService {
     @Autowired
     private TenantService tenantService;
 
+    @Autowired(required = false)
+    private WriteBehindCartStore cartStore;
+
     public Cart getCartBySessionId(String sessionId) {
         logger.debug("Getting cart for session {} for tenant: {}", 
                     sessionId, tenantService.getCurrentTenant());
         
-        Optional<Cart> cartOpt = cartRepository.findBySessionId(sessionId);
-        if (cartOpt.isEmpty()) {
-            Cart newCart = new Cart();
-            newCart.setSessionId(sessionId);
-            return cartRepository.save(newCart);
+        if (cartStore != null) {
+            Cart cart = cartStore.get(sessionId, () -> loadCart(sessionId));
+            if (cart != null) {
+                return cart;
+            }
         }
-        return cartOpt.get();
+        return findOrCreateCart(sessionId);
     }
 
     public Cart getCartByUserId(String userId) {
@@ -63,12 +69,33 @@ public class CartService {
         return cartOpt.get();
     }
 
+    /**
+     * Read model of the session's cart, taken from the write-behind store when it holds the cart and
+     * otherwise from a single projection query. A missing cart is created as for
+     * {@link #getCartBySessionId}.
+     */
+    public CartView getCartViewBySessionId(String sessionId) {
+        if (cartStore == null) {
+            List<CartViewRow> rows = cartRepository.findViewBySessionId(sessionId);
+            if (!rows.isEmpty()) {
+                return CartView.of(rows);
+            }
+        }
+        return CartView.of(getCartBySessionId(sessionId));
+    }
+
+    public CartView getCartViewByUserId(String userId) {
+        List<CartViewRow> rows = cartRepository.findViewByUserId(userId);
+        if (!rows.isEmpty()) {
+            return CartView.of(rows);
+        }
+        return CartView.of(getCartByUserId(userId));
+    }
+
     public Cart addItemToCart(String sessionId, Long productId, Integer quantity, String customerGroup) {
         logger.info("Adding item {} (qty: {}) to cart {} for tenant: {}", 
                    productId, quantity, sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        
         Optional<Product> productOpt = productRepository.findById(productId);
         if (productOpt.isEmpty()) {
             throw new RuntimeException("Product not found with id: " + productId);
@@ -81,137 +108,171 @@ public class CartService {
 
         BigDecimal effectivePrice = priceService.getEffectivePrice(productId, customerGroup, quantity);
 
-        Optional<CartItem> existingItem = cart.getItems().stream()
-            .filter(item -> item.getProduct().getId().equals(productId))
-            .findFirst();
+        return modifyCart(sessionId, cart -> {
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .findFirst();
 
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            int newQuantity = item.getQuantity() + quantity;
-            
-            if (product.getStockQuantity() < newQuantity) {
-                throw new RuntimeException("Insufficient stock for requested quantity");
+            if (existingItem.isPresent()) {
+                CartItem item = existingItem.get();
+                int newQuantity = item.getQuantity() + quantity;
+                
+                if (product.getStockQuantity() < newQuantity) {
+                    throw new RuntimeException("Insufficient stock for requested quantity");
+                }
+                
+                item.setQuantity(newQuantity);
+                item.setUnitPrice(effectivePrice);
+                item.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(newQuantity)));
+            } else {
+                CartItem newItem = new CartItem();
+                newItem.setCart(cart);
+                newItem.setProduct(product);
+                newItem.setQuantity(quantity);
+                newItem.setUnitPrice(effectivePrice);
+                newItem.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(quantity)));
+                cart.getItems().add(newItem);
             }
-            
-            item.setQuantity(newQuantity);
-            item.setUnitPrice(effectivePrice);
-            item.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(newQuantity)));
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            newItem.setUnitPrice(effectivePrice);
-            newItem.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(quantity)));
-            cart.getItems().add(newItem);
-        }
 
-        recalculateCart(cart);
-        return cartRepository.save(cart);
+            recalculateCart(cart);
+        });
     }
 
     public Cart updateCartItem(String sessionId, Long productId, Integer quantity, String customerGroup) {
         logger.info("Updating cart item {} to qty {} in cart {} for tenant: {}", 
                    productId, quantity, sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        
-        Optional<CartItem> existingItem = cart.getItems().stream()
-            .filter(item -> item.getProduct().getId().equals(productId))
-            .findFirst();
-
-        if (existingItem.isEmpty()) {
-            throw new RuntimeException("Item not found in cart");
-        }
+        return modifyCart(sessionId, cart -> {
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .findFirst();
 
-        CartItem item = existingItem.get();
-        Product product = item.getProduct();
-        
-        if (quantity <= 0) {
-            cart.getItems().remove(item);
-        } else {
-            if (product.getStockQuantity() < quantity) {
-                throw new RuntimeException("Insufficient stock for requested quantity");
+            if (existingItem.isEmpty()) {
+                throw new RuntimeException("Item not found in cart");
             }
+
+            CartItem item = existingItem.get();
+            Product product = item.getProduct();
             
-            BigDecimal effectivePrice = priceService.getEffectivePrice(productId, customerGroup, quantity);
-            item.setQuantity(quantity);
-            item.setUnitPrice(effectivePrice);
-            item.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(quantity)));
-        }
+            if (quantity <= 0) {
+                cart.getItems().remove(item);
+            } else {
+                if (product.getStockQuantity() < quantity) {
+                    throw new RuntimeException("Insufficient stock for requested quantity");
+                }
+                
+                BigDecimal effectivePrice = priceService.getEffectivePrice(productId, customerGroup, quantity);
+                item.setQuantity(quantity);
+                item.setUnitPrice(effectivePrice);
+                item.setTotalPrice(effectivePrice.multiply(BigDecimal.valueOf(quantity)));
+            }
 
-        recalculateCart(cart);
-        return cartRepository.save(cart);
+            recalculateCart(cart);
+        });
     }
 
     public Cart removeItemFromCart(String sessionId, Long productId) {
         logger.info("Removing item {} from cart {} for tenant: {}", 
                    productId, sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        
-        cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
-        
-        recalculateCart(cart);
-        return cartRepository.save(cart);
+        return modifyCart(sessionId, cart -> {
+            cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
+            recalculateCart(cart);
+        });
     }
 
     public Cart applyPromotion(String sessionId, String promotionCode) {
         logger.info("Applying promotion {} to cart {} for tenant: {}", 
                    promotionCode, sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        
-        Optional<Promotion> promotionOpt = promotionService.getPromotionByCode(promotionCode);
+        Optional<CompiledPromotion> promotionOpt = promotionService.getCompiledPromotion(promotionCode);
         if (promotionOpt.isEmpty()) {
             throw new RuntimeException("Invalid promotion code: " + promotionCode);
         }
         
-        Promotion promotion = promotionOpt.get();
-        BigDecimal discount = promotionService.calculateDiscount(promotion, cart.getSubtotal());
-        
-        if (discount.compareTo(BigDecimal.ZERO) > 0) {
-            cart.setAppliedPromotion(promotion);
-            cart.setDiscountAmount(discount);
-            cart.setTotalAmount(cart.getSubtotal().subtract(discount));
-        } else {
-            throw new RuntimeException("Promotion is not applicable to this cart");
-        }
-        
-        return cartRepository.save(cart);
+        CompiledPromotion promotion = promotionOpt.get();
+        return modifyCart(sessionId, cart -> {
+            BigDecimal discount = promotion.discount(cart.getSubtotal(), LocalDateTime.now());
+            
+            if (discount.compareTo(BigDecimal.ZERO) > 0) {
+                cart.setAppliedPromotion(promotionService.getPromotionReference(promotion.getId()));
+                cart.setDiscountAmount(discount);
+                cart.setTotalAmount(cart.getSubtotal().subtract(discount));
+            } else {
+                throw new RuntimeException("Promotion is not applicable to this cart");
+            }
+        });
     }
 
     public Cart removePromotion(String sessionId) {
         logger.info("Removing promotion from cart {} for tenant: {}", 
                    sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        cart.setAppliedPromotion(null);
-        cart.setDiscountAmount(BigDecimal.ZERO);
-        cart.setTotalAmount(cart.getSubtotal());
-        
-        return cartRepository.save(cart);
+        return modifyCart(sessionId, cart -> {
+            cart.setAppliedPromotion(null);
+            cart.setDiscountAmount(BigDecimal.ZERO);
+            cart.setTotalAmount(cart.getSubtotal());
+        });
     }
 
     public void clearCart(String sessionId) {
         logger.info("Clearing cart {} for tenant: {}", sessionId, tenantService.getCurrentTenant());
         
-        Cart cart = getCartBySessionId(sessionId);
-        cart.getItems().clear();
-        cart.setAppliedPromotion(null);
-        cart.setSubtotal(BigDecimal.ZERO);
-        cart.setDiscountAmount(BigDecimal.ZERO);
-        cart.setTotalAmount(BigDecimal.ZERO);
-        
-        cartRepository.save(cart);
+        modifyCart(sessionId, cart -> {
+            cart.getItems().clear();
+            cart.setAppliedPromotion(null);
+            cart.setSubtotal(BigDecimal.ZERO);
+            cart.setDiscountAmount(BigDecimal.ZERO);
+            cart.setTotalAmount(BigDecimal.ZERO);
+        });
     }
 
-    public void cleanupAbandonedCarts(int daysOld) {
+    /**
+     * Deletes the current tenant's carts that have not been updated for {@code daysOld} days.
+     *
+     * @return the number of carts deleted
+     */
+    public int cleanupAbandonedCarts(int daysOld) {
         logger.info("Cleaning up carts older than {} days for tenant: {}", 
                    daysOld, tenantService.getCurrentTenant());
         
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        cartRepository.deleteAbandonedCarts(cutoffDate);
+        cartRepository.deleteItemsOfAbandonedCarts(cutoffDate);
+        return cartRepository.deleteAbandonedCarts(cutoffDate);
+    }
+
+    /**
+     * Applies a modification to the session's cart, in the write-behind store when it is enabled and
+     * has room, otherwise directly against the database.
+     */
+    private Cart modifyCart(String sessionId, Consumer<Cart> modification) {
+        if (cartStore != null) {
+            Cart cart = cartStore.modify(sessionId, () -> loadCart(sessionId), modification);
+            if (cart != null) {
+                return cart;
+            }
+        }
+        Cart cart = findOrCreateCart(sessionId);
+        modification.accept(cart);
+        return cartRepository.save(cart);
+    }
+
+    private Cart findOrCreateCart(String sessionId) {
+        Optional<Cart> cartOpt = cartRepository.findBySessionId(sessionId);
+        if (cartOpt.isEmpty()) {
+            Cart newCart = new Cart();
+            newCart.setSessionId(sessionId);
+            return cartRepository.save(newCart);
+        }
+        return cartOpt.get();
+    }
+
+    private Cart loadCart(String sessionId) {
+        return cartRepository.findBySessionId(sessionId).orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setSessionId(sessionId);
+            return newCart;
+        });
     }
 
     private void recalculateCart(Cart cart) {
@@ -222,7 +283,7 @@ public class CartService {
         cart.setSubtotal(subtotal);
         
         if (cart.getAppliedPromotion() != null) {
-            BigDecimal discount = promotionService.calculateDiscount(cart.getAppliedPromotion(), subtotal);
+            BigDecimal discount = promotionService.calculateDiscountById(cart.getAppliedPromotion().getId(), subtotal);
             cart.setDiscountAmount(discount);
             cart.setTotalAmount(subtotal.subtract(discount));
         } else {
@@ -0,0 +1,377 @@
+package com.shoppingcart.multitenant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.PriceBookImportReport;
+import com.shoppingcart.multitenant.dto.PriceBookImportRow;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceBookRepository;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Versioned price books: a price list is imported into a new book without affecting current prices,
+ * then activated for the tenant in one transaction.
+ *
+ * <p>An import reads the upload line by line and inserts its prices in JDBC batches of
+ * {@code pricing.books.import.batch-size}, one transaction per batch, tagged with the book's id.
+ * Prices of a book are ignored by every price lookup until the book is activated. Activation retires
+ * the previously active book and activates the new one in the same transaction, so lookups see either
+ * the whole old list or the whole new one, and the price index is dropped for the tenant on commit.
+ * Retired books stay stored and can be activated again to roll a repricing back. While a book is
+ * active, prices outside any book are ignored.
+ *
+ * <p>Activation locks the tenant's book rows first, so activations of a tenant are serialized across
+ * all application instances and at most one book is ever active.
+ */
+@Service
+public class PriceBookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceBookService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final List<String> CSV_COLUMNS = List.of(
+        "sku", "price", "priceType", "customerGroup", "minQuantity", "validFrom", "validTo");
+
+    @Autowired
+    private PriceBookRepository priceBookRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${pricing.books.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public enum Format {
+        /**
+         * A header row naming the columns, then one price per line. Fields may be quoted with {@code "}
+         * but must not contain line breaks; dates are ISO local date-times.
+         */
+        CSV,
+        /**
+         * One JSON object per line with the fields of {@link PriceBookImportRow}.
+         */
+        NDJSON
+    }
+
+    public List<PriceBook> getPriceBooks() {
+        return priceBookRepository.findAllByOrderByIdDesc();
+    }
+
+    /**
+     * Imports the prices in {@code input} into a new book of the current tenant, and activates the book
+     * afterwards if {@code activate} is set and the import completed.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or names unknown columns; the book is
+     *                                  left {@link PriceBook.Status#FAILED failed}
+     */
+    public PriceBookImportReport importPriceBook(InputStream input, Format format, String name, boolean activate) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        PriceBook book = new PriceBook();
+        book.setName(name);
+        PriceBook created = transaction.execute(status -> priceBookRepository.save(book));
+        Long bookId = created.getId();
+        logger.info("Importing {} price book {} for tenant: {}", format, bookId, TenantContext.getCurrentTenantOrDefault());
+
+        ImportState state = new ImportState();
+        PriceBook.Status outcome = PriceBook.Status.FAILED;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            read(reader, format, bookId, state);
+            outcome = PriceBook.Status.STAGED;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            PriceBook.Status status = outcome;
+            created = transaction.execute(tx -> {
+                PriceBook stored = priceBookRepository.findById(bookId).orElseThrow();
+                stored.setStatus(status);
+                stored.setPriceCount(state.staged);
+                return stored;
+            });
+            logger.info("Price book {} for tenant {} ended {}: {} rows, {} prices, {} rejected",
+                bookId, TenantContext.getCurrentTenantOrDefault(), status, state.rows, state.staged, state.rejected);
+        }
+
+        if (activate) {
+            created = activate(bookId);
+        }
+        return new PriceBookImportReport(created, state.rows, state.staged, state.rejected, List.copyOf(state.errors));
+    }
+
+    /**
+     * Makes the book the tenant's active one and retires the book it replaces.
+     *
+     * @throws IllegalStateException if the book is still importing or its import failed
+     */
+    public PriceBook activate(Long id) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            priceBookRepository.findAllForUpdate();
+            PriceBook book = priceBookRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Price book not found with id: " + id));
+            if (book.getStatus() == PriceBook.Status.ACTIVE) {
+                return book;
+            }
+            if (book.getStatus() != PriceBook.Status.STAGED && book.getStatus() != PriceBook.Status.RETIRED) {
+                throw new IllegalStateException("Price book " + id + " is " + book.getStatus()
+                    + " and cannot be activated");
+            }
+
+            int retired = priceBookRepository.retireActiveExcept(id);
+            book.setStatus(PriceBook.Status.ACTIVE);
+            book.setActivatedAt(LocalDateTime.now());
+            priceIndex.invalidateAll();
+            logger.info("Activated price book {} for tenant {}, retired {}", id, TenantContext.getCurrentTenantOrDefault(), retired);
+            return book;
+        });
+    }
+
+    /**
+     * Deletes a book that is not active, together with its prices.
+     *
+     * @throws IllegalStateException if the book is active or still importing
+     */
+    public void delete(Long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            priceBookRepository.findAllForUpdate();
+            PriceBook book = priceBookRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Price book not found with id: " + id));
+            if (book.getStatus() == PriceBook.Status.ACTIVE || book.getStatus() == PriceBook.Status.IMPORTING) {
+                throw new IllegalStateException("Price book " + id + " is " + book.getStatus()
+                    + " and cannot be deleted");
+            }
+            int prices = priceRepository.deleteByPriceBookId(id);
+            priceBookRepository.delete(book);
+            logger.info("Deleted price book {} with {} prices for tenant: {}", id, prices, TenantContext.getCurrentTenantOrDefault());
+        });
+    }
+
+    private void read(BufferedReader reader, Format format, Long bookId, ImportState state) throws IOException {
+        long line = 0;
+        int[] columns = null;
+        List<PendingPrice> batch = new ArrayList<>();
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = parseHeader(text);
+                continue;
+            }
+
+            state.rows++;
+            PriceBookImportRow row;
+            try {
+                row = format == Format.CSV ? parseCsvRow(text, columns) : parseJsonRow(text);
+            } catch (IllegalArgumentException e) {
+                state.reject(line, null, e.getMessage());
+                continue;
+            }
+            Price price = toPrice(row);
+            String error = validate(row, price);
+            if (error != null) {
+                state.reject(line, row.sku(), error);
+                continue;
+            }
+            batch.add(new PendingPrice(line, row.sku(), price));
+            if (batch.size() >= batchSize) {
+                write(batch, bookId, state);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, bookId, state);
+        }
+    }
+
+    private void write(List<PendingPrice> batch, Long bookId, ImportState state) {
+        Set<String> skus = batch.stream().map(PendingPrice::sku).collect(Collectors.toSet());
+        List<PendingPrice> unknown = new ArrayList<>();
+        int staged = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<String, Product> products = productRepository.findBySkuIn(skus).stream()
+                .collect(Collectors.toMap(Product::getSku, product -> product, (first, second) -> first));
+            List<Price> prices = new ArrayList<>(batch.size());
+            for (PendingPrice pending : batch) {
+                Product product = products.get(pending.sku());
+                if (product == null) {
+                    unknown.add(pending);
+                    continue;
+                }
+                pending.price().setProduct(product);
+                pending.price().setPriceBookId(bookId);
+                prices.add(pending.price());
+            }
+            priceRepository.saveAll(prices);
+            entityManager.flush();
+            entityManager.clear();
+            return prices.size();
+        });
+        state.staged += staged;
+        for (PendingPrice pending : unknown) {
+            state.reject(pending.line(), pending.sku(), "sku: no product with this SKU");
+        }
+    }
+
+    private String validate(PriceBookImportRow row, Price price) {
+        if (row.sku() == null || row.sku().isBlank()) {
+            return "sku: must not be blank";
+        }
+        if (price.getValidFrom() != null && price.getValidTo() != null
+                && price.getValidTo().isBefore(price.getValidFrom())) {
+            return "validTo: must not be before validFrom";
+        }
+        Set<ConstraintViolation<Price>> violations = validator.validate(price);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static Price toPrice(PriceBookImportRow row) {
+        Price price = new Price();
+        price.setPrice(row.price());
+        if (row.priceType() != null) {
+            price.setPriceType(row.priceType());
+        }
+        price.setCustomerGroup(row.customerGroup());
+        if (row.minQuantity() != null) {
+            price.setMinQuantity(row.minQuantity());
+        }
+        price.setValidFrom(row.validFrom());
+        price.setValidTo(row.validTo());
+        return price;
+    }
+
+    private PriceBookImportRow parseJsonRow(String text) {
+        try {
+            return objectMapper.readValue(text, PriceBookImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Maps each header column to its index in {@link #CSV_COLUMNS}.
+     */
+    static int[] parseHeader(String header) {
+        List<String> names = ProductImportService.parseCsvLine(header);
+        int[] columns = new int[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = CSV_COLUMNS.indexOf(names.get(i).trim());
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown CSV column: " + names.get(i)
+                    + ", expected any of " + CSV_COLUMNS);
+            }
+        }
+        if (Arrays.stream(columns).noneMatch(column -> column == 0)) {
+            throw new IllegalArgumentException("CSV header must include the sku column");
+        }
+        return columns;
+    }
+
+    static PriceBookImportRow parseCsvRow(String text, int[] columns) {
+        List<String> fields = ProductImportService.parseCsvLine(text);
+        if (fields.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " fields but found " + fields.size());
+        }
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (!fields.get(i).isBlank()) {
+                values.put(columns[i], fields.get(i).trim());
+            }
+        }
+        try {
+            return new PriceBookImportRow(
+                values.get(0),
+                values.containsKey(1) ? new BigDecimal(values.get(1)) : null,
+                values.get(2),
+                values.get(3),
+                values.containsKey(4) ? Integer.valueOf(values.get(4)) : null,
+                values.containsKey(5) ? LocalDateTime.parse(values.get(5)) : null,
+                values.containsKey(6) ? LocalDateTime.parse(values.get(6)) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date-time: " + e.getParsedString());
+        }
+    }
+
+    private record PendingPrice(long line, String sku, Price price) {
+    }
+
+    /**
+     * Counters of one import, used only by the importing thread.
+     */
+    private static class ImportState {
+
+        private long rows;
+
+        private long staged;
+
+        private long rejected;
+
+        private final List<PriceBookImportReport.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String sku, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PriceBookImportReport.RowError(line, sku, message));
+            }
+        }
+    }
+}
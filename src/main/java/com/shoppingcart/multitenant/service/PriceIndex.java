@@ -0,0 +1,273 @@
+package com.shoppingcart.multitenant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.EffectivePrice;
+import com.shoppingcart.multitenant.dto.EffectivePriceRequest;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant, in-memory index of each product's active price tiers.
+ *
+ * <p>A product's tiers are loaded on its first lookup and kept sorted the way
+ * {@link PriceRepository#findEffectivePrice} orders them (customer group descending with ungrouped
+ * prices last, then minimum quantity descending), so answering a lookup is a scan for the first tier
+ * that matches. Writes to prices or to a product's base price call {@link #invalidate(Long)}, which
+ * drops the product's entry once the surrounding transaction commits. Entries also expire after
+ * {@code pricing.index.ttl} so that writes made by other application instances are picked up, and each
+ * tenant keeps at most {@code pricing.index.max-products-per-tenant} products, evicted by Caffeine's
+ * W-TinyLFU policy, so a large catalogue cannot grow the index without bound.
+ *
+ * <p>Tiers come from the tenant's active price book, or from prices outside any book while no book is
+ * active. Activating another book drops the tenant's whole index on commit.
+ */
+@Component
+public class PriceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceIndex.class);
+
+    private static final Comparator<Tier> TIER_ORDER = Comparator
+        .comparing(Tier::customerGroup, Comparator.nullsLast(Comparator.<String>reverseOrder()))
+        .thenComparing(Tier::minQuantity, Comparator.nullsLast(Comparator.<Integer>reverseOrder()));
+
+    private final Map<String, TenantPrices> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Value("${pricing.index.ttl:PT5M}")
+    private Duration ttl = Duration.ofMinutes(5);
+
+    @Value("${pricing.index.max-products-per-tenant:10000}")
+    private long maxProductsPerTenant = 10_000;
+
+    public BigDecimal getEffectivePrice(Long productId, String customerGroup, Integer quantity) {
+        return getProductPrices(productId).effectivePrice(customerGroup, quantity, LocalDateTime.now());
+    }
+
+    /**
+     * Prices many products at once. Products that are not cached yet are loaded together with two
+     * set-based queries; products that do not exist are left out of the result.
+     */
+    public List<EffectivePrice> getEffectivePrices(List<EffectivePriceRequest.Item> items, String customerGroup) {
+        Set<Long> productIds = new HashSet<>();
+        for (EffectivePriceRequest.Item item : items) {
+            productIds.add(item.productId());
+        }
+        Map<Long, ProductPrices> prices = getProductPrices(productIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EffectivePrice> result = new ArrayList<>(items.size());
+        for (EffectivePriceRequest.Item item : items) {
+            ProductPrices product = prices.get(item.productId());
+            if (product != null) {
+                result.add(new EffectivePrice(item.productId(), item.quantity(),
+                    product.effectivePrice(customerGroup, item.quantity(), now)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the product's cached tiers for the current tenant. Inside a transaction this happens after
+     * commit, so that a concurrent lookup cannot reload the old rows in between.
+     */
+    public void invalidate(Long productId) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId, productId);
+                }
+            });
+        } else {
+            evict(tenantId, productId);
+        }
+    }
+
+    /**
+     * Drops every cached product for the current tenant, after commit when inside a transaction. Used
+     * when a price book is activated, so no lookup mixes tiers of the old and the new book.
+     */
+    public void invalidateAll() {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll(tenantId);
+                }
+            });
+        } else {
+            evictAll(tenantId);
+        }
+    }
+
+    ProductPrices getProductPrices(Long productId) {
+        TenantPrices prices = tenantPrices();
+        ProductPrices cached = prices.products.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Loads that raced with an invalidation are returned to the caller but not kept.
+        long generation = prices.generation.get();
+        ProductPrices loaded = load(productId);
+        if (prices.generation.get() == generation) {
+            prices.products.put(productId, loaded);
+        }
+        return loaded;
+    }
+
+    Map<Long, ProductPrices> getProductPrices(Collection<Long> productIds) {
+        TenantPrices prices = tenantPrices();
+        Map<Long, ProductPrices> result = new HashMap<>(prices.products.getAllPresent(productIds));
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (!result.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long generation = prices.generation.get();
+        Map<Long, ProductPrices> loaded = load(missing);
+        if (prices.generation.get() == generation) {
+            prices.products.putAll(loaded);
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    private Map<Long, ProductPrices> load(List<Long> productIds) {
+        logger.debug("Loading price tiers for {} products for tenant: {}", productIds.size(),
+            TenantContext.getCurrentTenantOrDefault());
+
+        List<Product> products = productRepository.findAllById(productIds);
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<Tier>> tiers = new HashMap<>();
+        for (Price price : priceRepository.findByProductInAndActiveTrue(products)) {
+            tiers.computeIfAbsent(price.getProduct().getId(), id -> new ArrayList<>()).add(Tier.of(price));
+        }
+
+        Map<Long, ProductPrices> loaded = new HashMap<>();
+        for (Product product : products) {
+            List<Tier> sorted = tiers.getOrDefault(product.getId(), List.of()).stream()
+                .sorted(TIER_ORDER)
+                .toList();
+            loaded.put(product.getId(), new ProductPrices(product.getBasePrice(), sorted));
+        }
+        return loaded;
+    }
+
+    private ProductPrices load(Long productId) {
+        logger.debug("Loading price tiers for product {} for tenant: {}", productId,
+            TenantContext.getCurrentTenantOrDefault());
+
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        List<Tier> tiers = priceRepository.findByProductAndActiveTrue(product).stream()
+            .map(Tier::of)
+            .sorted(TIER_ORDER)
+            .toList();
+        return new ProductPrices(product.getBasePrice(), tiers);
+    }
+
+    private TenantPrices tenantPrices() {
+        return tenants.computeIfAbsent(TenantContext.getCurrentTenantOrDefault(), tenantId -> new TenantPrices(
+            Caffeine.newBuilder()
+                .maximumSize(maxProductsPerTenant)
+                .expireAfterWrite(ttl)
+                .build()));
+    }
+
+    private void evict(String tenantId, Long productId) {
+        TenantPrices prices = tenants.get(tenantId);
+        if (prices != null) {
+            prices.generation.incrementAndGet();
+            prices.products.invalidate(productId);
+        }
+    }
+
+    private void evictAll(String tenantId) {
+        TenantPrices prices = tenants.remove(tenantId);
+        if (prices != null) {
+            prices.generation.incrementAndGet();
+        }
+    }
+
+    record ProductPrices(BigDecimal basePrice, List<Tier> tiers) {
+
+        BigDecimal effectivePrice(String customerGroup, Integer quantity, LocalDateTime now) {
+            for (Tier tier : tiers) {
+                if (tier.matches(customerGroup, quantity, now)) {
+                    return tier.price();
+                }
+            }
+            return basePrice;
+        }
+    }
+
+    record Tier(BigDecimal price, String customerGroup, Integer minQuantity,
+                LocalDateTime validFrom, LocalDateTime validTo) {
+
+        static Tier of(Price price) {
+            return new Tier(price.getPrice(), price.getCustomerGroup(), price.getMinQuantity(),
+                price.getValidFrom(), price.getValidTo());
+        }
+
+        /**
+         * Same conditions as the JPQL query; like SQL comparisons, a missing quantity matches nothing.
+         */
+        boolean matches(String group, Integer quantity, LocalDateTime now) {
+            return (validFrom == null || !validFrom.isAfter(now))
+                && (validTo == null || !validTo.isBefore(now))
+                && (group == null || customerGroup == null || customerGroup.equals(group))
+                && minQuantity != null && quantity != null && minQuantity <= quantity;
+        }
+    }
+
+    private static class TenantPrices {
+
+        private final Cache<Long, ProductPrices> products;
+
+        private final AtomicLong generation = new AtomicLong();
+
+        TenantPrices(Cache<Long, ProductPrices> products) {
+            this.products = products;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.dto.EffectivePrice;
+import com.shoppingcart.multitenant.dto.EffectivePriceRequest;
 import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
 import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceBookRepository;
 import com.shoppingcart.multitenant.repository.PriceRepository;
 import com.shoppingcart.multitenant.repository.ProductRepository;
 import org.slf4j.Logger;
@@ -11,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,24 +30,25 @@ public class PriceService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private PriceBookRepository priceBookRepository;
+
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private PriceIndex priceIndex;
+
     public BigDecimal getEffectivePrice(Long productId, String customerGroup, Integer quantity) {
         logger.debug("Getting effective price for product {} for tenant: {}", 
                     productId, tenantService.getCurrentTenant());
-        
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isEmpty()) {
-            throw new RuntimeException("Product not found with id: " + productId);
-        }
-
-        Product product = productOpt.get();
-        Optional<Price> effectivePrice = priceRepository.findEffectivePrice(
-            product, customerGroup, quantity, LocalDateTime.now()
-        );
+        return priceIndex.getEffectivePrice(productId, customerGroup, quantity);
+    }
 
-        return effectivePrice.map(Price::getPrice).orElse(product.getBasePrice());
+    public List<EffectivePrice> getEffectivePrices(List<EffectivePriceRequest.Item> items, String customerGroup) {
+        logger.debug("Getting effective prices for {} items for tenant: {}", 
+                    items.size(), tenantService.getCurrentTenant());
+        return priceIndex.getEffectivePrices(items, customerGroup);
     }
 
     public List<Price> getProductPrices(Long productId) {
@@ -65,12 +69,21 @@ public class PriceService {
         return priceRepository.findByPriceTypeAndActiveTrue(priceType);
     }
 
+    /**
+     * @throws IllegalStateException if the price belongs to no book while a price book is active
+     */
     public Price createPrice(Price price) {
         logger.info("Creating new price for product {} for tenant: {}", 
                    price.getProduct().getId(), tenantService.getCurrentTenant());
-        return priceRepository.save(price);
+        requireInEffect(price);
+        Price saved = priceRepository.save(price);
+        priceIndex.invalidate(price.getProduct().getId());
+        return saved;
     }
 
+    /**
+     * @throws IllegalStateException if the price belongs to no book while a price book is active
+     */
     public Price updatePrice(Long id, Price priceUpdates) {
         logger.info("Updating price {} for tenant: {}", id, tenantService.getCurrentTenant());
         
@@ -80,6 +93,7 @@ public class PriceService {
         }
 
         Price price = existingPrice.get();
+        requireInEffect(price);
         if (priceUpdates.getPrice() != null) {
             price.setPrice(priceUpdates.getPrice());
         }
@@ -102,11 +116,32 @@ public class PriceService {
             price.setActive(priceUpdates.getActive());
         }
 
-        return priceRepository.save(price);
+        Price saved = priceRepository.save(price);
+        priceIndex.invalidate(price.getProduct().getId());
+        return saved;
+    }
+
+    /**
+     * Rejects a write to a price outside any book while a book is active, because every price lookup
+     * ignores such a price until no book is active again. Locks the tenant's books as activation does,
+     * so that no book can be activated before the write commits.
+     */
+    private void requireInEffect(Price price) {
+        if (price.getPriceBookId() != null) {
+            return;
+        }
+        priceBookRepository.findAllForUpdate().stream()
+            .filter(book -> book.getStatus() == PriceBook.Status.ACTIVE)
+            .findFirst()
+            .ifPresent(book -> {
+                throw new IllegalStateException("Price book " + book.getId()
+                    + " is active, so prices outside a price book do not apply");
+            });
     }
 
     public void deletePrice(Long id) {
         logger.info("Deleting price {} for tenant: {}", id, tenantService.getCurrentTenant());
+        priceRepository.findById(id).ifPresent(price -> priceIndex.invalidate(price.getProduct().getId()));
         priceRepository.deleteById(id);
     }
 
@@ -117,6 +152,7 @@ public class PriceService {
         if (price.isPresent()) {
             price.get().setActive(false);
             priceRepository.save(price.get());
+            priceIndex.invalidate(price.get().getProduct().getId());
         } else {
             throw new RuntimeException("Price not found with id: " + id);
         }
@@ -0,0 +1,202 @@
+package com.shoppingcart.multitenant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.metrics.TenantMetrics;
+import com.shoppingcart.multitenant.metrics.TenantTagLimiter;
+import com.shoppingcart.multitenant.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant near-cache for product lookups by id, SKU, category and brand, enabled unless
+ * {@code products.cache.enabled} is {@code false}.
+ *
+ * <p>Every tenant has its own Caffeine cache (W-TinyLFU eviction) bounded by the estimated size of the
+ * products it holds, {@code products.cache.max-size-per-tenant}, so a tenant with a large catalogue
+ * cannot push the other tenants' products out. Products are cached as detached copies with their image
+ * URLs loaded; they are shared between callers and must not be modified. Absent ids and SKUs are
+ * cached too.
+ *
+ * <p>Product writes call {@link #invalidate}, which drops exactly the entries a product can appear in
+ * (its id, SKU, category and brand) once the surrounding transaction commits. Entries also expire after
+ * {@code products.cache.ttl} so that writes made by other application instances are picked up. Hit and
+ * miss counts are published as the {@code cache.*} meters tagged {@code cache=products} and
+ * {@code tenant}, for the tenants that {@link TenantTagLimiter} gives a tag value of their own.
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCache {
+
+    static final String CACHE_NAME = "products";
+
+    private final Map<String, Cache<Key, Object>> tenants = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private TenantTagLimiter tenantTagLimiter;
+
+    @Value("${products.cache.max-size-per-tenant:16MB}")
+    private DataSize maxSizePerTenant = DataSize.ofMegabytes(16);
+
+    @Value("${products.cache.ttl:PT5M}")
+    private Duration ttl = Duration.ofMinutes(5);
+
+    public Optional<Product> getById(Long id, Supplier<Optional<Product>> loader) {
+        return get(new Key(Kind.ID, id), () -> loader.get().map(ProductCache::copy));
+    }
+
+    public Optional<Product> getBySku(String sku, Supplier<Optional<Product>> loader) {
+        return get(new Key(Kind.SKU, sku), () -> loader.get().map(ProductCache::copy));
+    }
+
+    public List<Product> getByCategory(String category, Supplier<List<Product>> loader) {
+        return get(new Key(Kind.CATEGORY, category), () -> copy(loader.get()));
+    }
+
+    public List<Product> getByBrand(String brand, Supplier<List<Product>> loader) {
+        return get(new Key(Kind.BRAND, brand), () -> copy(loader.get()));
+    }
+
+    /**
+     * Drops every entry the given product states appear in for the current tenant. Pass the product
+     * both before and after a change that may move it to another category or brand. Inside a
+     * transaction this happens after commit, so that a concurrent lookup cannot reload the old row in
+     * between.
+     */
+    public void invalidate(Product... products) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        List<Key> keys = new ArrayList<>();
+        for (Product product : products) {
+            keys.add(new Key(Kind.ID, product.getId()));
+            keys.add(new Key(Kind.SKU, product.getSku()));
+            keys.add(new Key(Kind.CATEGORY, product.getCategory()));
+            keys.add(new Key(Kind.BRAND, product.getBrand()));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId, keys);
+                }
+            });
+        } else {
+            evict(tenantId, keys);
+        }
+    }
+
+    /**
+     * Drops every cached product for the current tenant.
+     */
+    public void invalidateAll() {
+        Cache<Key, Object> cache = tenants.get(TenantContext.getCurrentTenantOrDefault());
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V get(Key key, Supplier<V> loader) {
+        return (V) tenants.computeIfAbsent(TenantContext.getCurrentTenantOrDefault(), this::createCache).get(key, k -> loader.get());
+    }
+
+    private void evict(String tenantId, List<Key> keys) {
+        Cache<Key, Object> cache = tenants.get(tenantId);
+        if (cache != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private Cache<Key, Object> createCache(String tenantId) {
+        Cache<Key, Object> cache = Caffeine.newBuilder()
+            .maximumWeight(maxSizePerTenant.toBytes())
+            .weigher((Key key, Object value) -> weigh(value))
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        if (meterRegistry != null && (tenantTagLimiter == null || tenantTagLimiter.isTagged(tenantId))) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, Tags.of(TenantMetrics.TENANT_TAG, tenantId));
+        }
+        return cache;
+    }
+
+    private static List<Product> copy(List<Product> products) {
+        return products.stream().map(ProductCache::copy).toList();
+    }
+
+    /**
+     * Copies the product into a plain object, with its image URLs loaded, that can outlive the
+     * persistence context it was read in.
+     */
+    static Product copy(Product source) {
+        Product product = new Product();
+        product.setId(source.getId());
+        product.setName(source.getName());
+        product.setDescription(source.getDescription());
+        product.setSku(source.getSku());
+        product.setBasePrice(source.getBasePrice());
+        product.setStockQuantity(source.getStockQuantity());
+        product.setCategory(source.getCategory());
+        product.setBrand(source.getBrand());
+        product.setImageUrls(source.getImageUrls() != null ? List.copyOf(source.getImageUrls()) : null);
+        product.setActive(source.getActive());
+        product.setCreatedAt(source.getCreatedAt());
+        product.setUpdatedAt(source.getUpdatedAt());
+        return product;
+    }
+
+    /**
+     * Rough heap footprint of a cached value in bytes, used to bound each tenant's cache.
+     */
+    static int weigh(Object value) {
+        if (value instanceof Optional<?> optional) {
+            return 16 + optional.map(ProductCache::weigh).orElse(0);
+        }
+        if (value instanceof List<?> products) {
+            int weight = 16 + 8 * products.size();
+            for (Object product : products) {
+                weight += weigh(product);
+            }
+            return weight;
+        }
+        Product product = (Product) value;
+        int weight = 160 + length(product.getName()) + length(product.getDescription()) + length(product.getSku())
+            + length(product.getCategory()) + length(product.getBrand());
+        if (product.getImageUrls() != null) {
+            for (String imageUrl : product.getImageUrls()) {
+                weight += 8 + length(imageUrl);
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value != null ? 40 + value.length() : 0;
+    }
+
+    private enum Kind {
+        ID, SKU, CATEGORY, BRAND
+    }
+
+    private record Key(Kind kind, Object value) {
+    }
+}
@@ -0,0 +1,410 @@
+package com.shoppingcart.multitenant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductImportReport;
+import com.shoppingcart.multitenant.dto.ProductImportRow;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import com.shoppingcart.multitenant.search.ProductSearchIndex;
+import com.shoppingcart.multitenant.search.ProductSuggestionIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from CSV or newline-delimited JSON, upserting by SKU.
+ *
+ * <p>The upload is read line by line and never held in memory as a whole. Rows are validated like
+ * products created through the API; invalid rows are rejected and reported without stopping the
+ * import. Valid rows are written in batches of {@code products.import.batch-size}, one transaction
+ * per batch: the batch's SKUs are looked up with one query, existing products are updated and new ones
+ * inserted through Hibernate's JDBC batching, which the pooled product id sequence makes possible.
+ *
+ * <p>A tenant runs one import at a time. Its progress can be polled with {@link #getProgress()} while
+ * it runs and until the next import starts. If a batch fails, the import stops and the report's
+ * {@code committed} count tells from which row to resend.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final List<String> CSV_COLUMNS = List.of(
+        "sku", "name", "description", "basePrice", "stockQuantity", "category", "brand", "imageUrls", "active");
+
+    private final Map<String, ImportProgress> imports = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired(required = false)
+    private ProductCache productCache;
+
+    @Autowired(required = false)
+    private ProductSearchIndex searchIndex;
+
+    @Autowired(required = false)
+    private ProductSuggestionIndex suggestionIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${products.import.batch-size:500}")
+    private int batchSize = 500;
+
+    public enum Format {
+        /**
+         * A header row naming the columns, then one product per line. Fields may be quoted with
+         * {@code "} but must not contain line breaks; image URLs are separated by {@code |}.
+         */
+        CSV,
+        /**
+         * One JSON object per line with the fields of {@link ProductImportRow}.
+         */
+        NDJSON
+    }
+
+    /**
+     * Imports the products in {@code input} for the current tenant.
+     *
+     * @throws IllegalStateException if an import is already running for the tenant
+     * @throws IllegalArgumentException if a CSV header is missing or names unknown columns
+     */
+    public ProductImportReport importProducts(InputStream input, Format format) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        ImportProgress progress = new ImportProgress();
+        ImportProgress running = imports.compute(tenantId, (id, previous) ->
+            previous != null && previous.status == ProductImportReport.Status.RUNNING ? previous : progress);
+        if (running != progress) {
+            throw new IllegalStateException("An import is already running for tenant: " + tenantId);
+        }
+
+        logger.info("Starting {} product import for tenant: {}", format, tenantId);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            read(reader, format, progress);
+            progress.status = ProductImportReport.Status.COMPLETED;
+        } catch (IOException e) {
+            progress.fail(e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            progress.fail(e);
+            throw e;
+        } finally {
+            invalidateCaches();
+            logger.info("Product import for tenant {} ended: {}", tenantId, progress.report());
+        }
+        return progress.report();
+    }
+
+    /**
+     * The running or most recent import of the current tenant, or {@code null} if there was none.
+     */
+    public ProductImportReport getProgress() {
+        ImportProgress progress = imports.get(TenantContext.getCurrentTenantOrDefault());
+        return progress != null ? progress.report() : null;
+    }
+
+    private void read(BufferedReader reader, Format format, ImportProgress progress) throws IOException {
+        int[] columns = null;
+        Map<String, ProductImportRow> batch = new LinkedHashMap<>();
+        String text;
+        while ((text = reader.readLine()) != null) {
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = parseHeader(text);
+                continue;
+            }
+
+            progress.rows++;
+            ProductImportRow row;
+            try {
+                row = format == Format.CSV ? parseCsvRow(text, columns) : parseJsonRow(text);
+            } catch (IllegalArgumentException e) {
+                progress.reject(progress.rows, null, e.getMessage());
+                continue;
+            }
+            String error = validate(row);
+            if (error != null) {
+                progress.reject(progress.rows, row.sku(), error);
+                continue;
+            }
+            // A SKU repeated within a batch keeps its last row.
+            batch.remove(row.sku());
+            batch.put(row.sku(), row);
+            if (batch.size() >= batchSize) {
+                write(batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, progress);
+        }
+    }
+
+    private void write(Map<String, ProductImportRow> batch, ImportProgress progress) {
+        int[] counts = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<String, Product> existing = productRepository.findBySkuIn(batch.keySet()).stream()
+                .collect(Collectors.toMap(Product::getSku, product -> product, (first, second) -> first));
+            List<Product> created = new ArrayList<>();
+            for (ProductImportRow row : batch.values()) {
+                Product product = existing.get(row.sku());
+                if (product == null) {
+                    product = new Product();
+                    created.add(product);
+                }
+                apply(row, product);
+            }
+            productRepository.saveAll(created);
+            entityManager.flush();
+            entityManager.clear();
+            return new int[] {created.size(), batch.size() - created.size()};
+        });
+        progress.inserted += counts[0];
+        progress.updated += counts[1];
+        progress.committed = progress.rows;
+        logger.debug("Imported {} products for tenant {}, {} rows read", batch.size(), TenantContext.getCurrentTenantOrDefault(), progress.rows);
+    }
+
+    /**
+     * Checks the row as the product it becomes when inserted, so an update must carry the same
+     * required fields as a create.
+     */
+    private String validate(ProductImportRow row) {
+        if (row.sku() == null || row.sku().isBlank()) {
+            return "sku: must not be blank";
+        }
+        Product product = new Product();
+        apply(row, product);
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static void apply(ProductImportRow row, Product product) {
+        product.setSku(row.sku());
+        if (row.name() != null) {
+            product.setName(row.name());
+        }
+        if (row.description() != null) {
+            product.setDescription(row.description());
+        }
+        if (row.basePrice() != null) {
+            product.setBasePrice(row.basePrice());
+        }
+        if (row.stockQuantity() != null) {
+            product.setStockQuantity(row.stockQuantity());
+        }
+        if (row.category() != null) {
+            product.setCategory(row.category());
+        }
+        if (row.brand() != null) {
+            product.setBrand(row.brand());
+        }
+        if (row.imageUrls() != null) {
+            product.setImageUrls(new ArrayList<>(row.imageUrls()));
+        }
+        if (row.active() != null) {
+            product.setActive(row.active());
+        }
+    }
+
+    /**
+     * Imported products bypass the per-product cache and index updates, so drop the tenant's derived
+     * data once and let it reload.
+     */
+    private void invalidateCaches() {
+        priceIndex.invalidateAll();
+        if (productCache != null) {
+            productCache.invalidateAll();
+        }
+        if (searchIndex != null) {
+            searchIndex.invalidateAll();
+        }
+        if (suggestionIndex != null) {
+            suggestionIndex.invalidateAll();
+        }
+    }
+
+    private ProductImportRow parseJsonRow(String text) {
+        try {
+            return objectMapper.readValue(text, ProductImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Maps each header column to its index in {@link #CSV_COLUMNS}.
+     */
+    static int[] parseHeader(String header) {
+        List<String> names = parseCsvLine(header);
+        int[] columns = new int[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = CSV_COLUMNS.indexOf(names.get(i).trim());
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown CSV column: " + names.get(i)
+                    + ", expected any of " + CSV_COLUMNS);
+            }
+        }
+        if (Arrays.stream(columns).noneMatch(column -> column == 0)) {
+            throw new IllegalArgumentException("CSV header must include the sku column");
+        }
+        return columns;
+    }
+
+    static ProductImportRow parseCsvRow(String text, int[] columns) {
+        List<String> fields = parseCsvLine(text);
+        if (fields.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " fields but found " + fields.size());
+        }
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (!fields.get(i).isEmpty()) {
+                values.put(columns[i], fields.get(i));
+            }
+        }
+        try {
+            String images = values.get(7);
+            String active = values.get(8);
+            return new ProductImportRow(
+                values.get(0),
+                values.get(1),
+                values.get(2),
+                values.containsKey(3) ? new BigDecimal(values.get(3).trim()) : null,
+                values.containsKey(4) ? Integer.valueOf(values.get(4).trim()) : null,
+                values.get(5),
+                values.get(6),
+                images != null ? Arrays.asList(images.split("\\|")) : null,
+                active != null ? Boolean.valueOf(active.trim()) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits one CSV line into fields, honouring {@code "}-quoted fields with {@code ""} escapes.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Counters of one import; written only by the importing thread and read by progress requests.
+     */
+    private static class ImportProgress {
+
+        private volatile ProductImportReport.Status status = ProductImportReport.Status.RUNNING;
+
+        private volatile long rows;
+
+        private volatile long committed;
+
+        private volatile long inserted;
+
+        private volatile long updated;
+
+        private volatile long rejected;
+
+        private final List<ProductImportReport.RowError> errors = new ArrayList<>();
+
+        private volatile String failure;
+
+        void reject(long row, String sku, String message) {
+            rejected++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ProductImportReport.RowError(row, sku, message));
+                }
+            }
+        }
+
+        void fail(Exception e) {
+            failure = e.getMessage();
+            status = ProductImportReport.Status.FAILED;
+        }
+
+        ProductImportReport report() {
+            List<ProductImportReport.RowError> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return new ProductImportReport(status, rows, committed, inserted, updated, rejected, reported, failure);
+        }
+    }
+}
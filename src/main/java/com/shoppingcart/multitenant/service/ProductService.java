@@ -1,17 +1,29 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.dto.ProductCursor;
+import com.shoppingcart.multitenant.dto.ProductCursorPage;
+import com.shoppingcart.multitenant.dto.ProductSuggestion;
 import com.shoppingcart.multitenant.model.Product;
 import com.shoppingcart.multitenant.repository.ProductRepository;
+import com.shoppingcart.multitenant.search.ProductSearchIndex;
+import com.shoppingcart.multitenant.search.ProductSuggestionIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -19,12 +31,35 @@ public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    static final int MAX_SEEK_SIZE = 500;
+
+    /**
+     * Streamed products are detached in batches of this many so that the persistence context does not
+     * grow with the catalog.
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired(required = false)
+    private ProductCache productCache;
+
+    @Autowired(required = false)
+    private ProductSearchIndex searchIndex;
+
+    @Autowired(required = false)
+    private ProductSuggestionIndex suggestionIndex;
+
     public List<Product> getAllActiveProducts() {
         logger.debug("Getting all active products for tenant: {}", tenantService.getCurrentTenant());
         return productRepository.findByActiveTrue();
@@ -35,31 +70,119 @@ public class ProductService {
         return productRepository.findByActiveTrue(pageable);
     }
 
+    public Slice<Product> getActiveProductSlice(Pageable pageable) {
+        logger.debug("Getting active products slice for tenant: {}", tenantService.getCurrentTenant());
+        return productRepository.findSliceByActiveTrue(pageable);
+    }
+
+    /**
+     * Returns the page of active products after {@code cursor}, or the first page in {@code key}
+     * order when there is no cursor. A cursor carries its own order, which takes precedence.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public ProductCursorPage seekActiveProducts(String cursor, ProductCursor.Key key, int size) {
+        logger.debug("Seeking active products after '{}' for tenant: {}", cursor, tenantService.getCurrentTenant());
+        ProductCursor after = cursor != null && !cursor.isEmpty() ? ProductCursor.decode(cursor) : null;
+        ProductCursor.Key order = after != null ? after.key() : key;
+        int pageSize = Math.max(1, Math.min(size, MAX_SEEK_SIZE));
+        // One extra row tells whether there is a next page without counting.
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Product> rows = switch (order) {
+            case ID -> productRepository.findActiveAfterId(after != null ? after.id() : 0L, limit);
+            case UPDATED_AT -> after != null
+                ? productRepository.findActiveUpdatedAfter(after.updatedAt(), after.id(), limit)
+                : productRepository.findByActiveTrueOrderByUpdatedAtAscIdAsc(limit);
+        };
+        if (rows.size() <= pageSize) {
+            return new ProductCursorPage(rows, null);
+        }
+        List<Product> content = rows.subList(0, pageSize);
+        return new ProductCursorPage(content, ProductCursor.after(order, content.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Passes every active product with an id above {@code afterId}, in id order, to {@code action}
+     * without holding the catalog in memory. Products are only valid, and their image URLs only
+     * loadable, during the callback.
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveProducts(Long afterId, Consumer<Product> action) {
+        logger.debug("Streaming active products after {} for tenant: {}", afterId, tenantService.getCurrentTenant());
+        try (Stream<Product> products = productRepository.streamActiveProductsAfter(afterId)) {
+            forEachDetached(products, action);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamInStockProducts(Consumer<Product> action) {
+        logger.debug("Streaming in-stock products for tenant: {}", tenantService.getCurrentTenant());
+        try (Stream<Product> products = productRepository.streamInStockProducts()) {
+            forEachDetached(products, action);
+        }
+    }
+
+    private void forEachDetached(Stream<Product> products, Consumer<Product> action) {
+        Iterator<Product> iterator = products.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+            if (++count % STREAM_BATCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
     public Optional<Product> getProductById(Long id) {
         logger.debug("Getting product by ID {} for tenant: {}", id, tenantService.getCurrentTenant());
+        if (productCache != null) {
+            return productCache.getById(id, () -> productRepository.findById(id));
+        }
         return productRepository.findById(id);
     }
 
     public Optional<Product> getProductBySku(String sku) {
         logger.debug("Getting product by SKU {} for tenant: {}", sku, tenantService.getCurrentTenant());
+        if (productCache != null) {
+            return productCache.getBySku(sku, () -> productRepository.findBySku(sku));
+        }
         return productRepository.findBySku(sku);
     }
 
     public List<Product> getProductsByCategory(String category) {
         logger.debug("Getting products by category {} for tenant: {}", category, tenantService.getCurrentTenant());
+        if (productCache != null) {
+            return productCache.getByCategory(category, () -> productRepository.findByCategory(category));
+        }
         return productRepository.findByCategory(category);
     }
 
     public List<Product> getProductsByBrand(String brand) {
         logger.debug("Getting products by brand {} for tenant: {}", brand, tenantService.getCurrentTenant());
+        if (productCache != null) {
+            return productCache.getByBrand(brand, () -> productRepository.findByBrand(brand));
+        }
         return productRepository.findByBrand(brand);
     }
 
     public Page<Product> searchProducts(String search, Pageable pageable) {
         logger.debug("Searching products with term '{}' for tenant: {}", search, tenantService.getCurrentTenant());
+        if (searchIndex != null) {
+            Optional<Page<Product>> indexed = searchIndex.search(search, pageable);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+        }
         return productRepository.searchProducts(search, pageable);
     }
 
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (suggestionIndex == null) {
+            return List.of();
+        }
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
     public List<Product> getInStockProducts() {
         logger.debug("Getting in-stock products for tenant: {}", tenantService.getCurrentTenant());
         return productRepository.findInStockProducts();
@@ -67,7 +190,17 @@ public class ProductService {
 
     public Product createProduct(Product product) {
         logger.info("Creating new product '{}' for tenant: {}", product.getName(), tenantService.getCurrentTenant());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (productCache != null) {
+            productCache.invalidate(saved);
+        }
+        if (searchIndex != null) {
+            searchIndex.index(saved);
+        }
+        if (suggestionIndex != null) {
+            suggestionIndex.index(saved);
+        }
+        return saved;
     }
 
     public Product updateProduct(Long id, Product productUpdates) {
@@ -79,6 +212,7 @@ public class ProductService {
         }
 
         Product product = existingProduct.get();
+        Product previous = productCache != null ? ProductCache.copy(product) : null;
         if (productUpdates.getName() != null) {
             product.setName(productUpdates.getName());
         }
@@ -104,12 +238,35 @@ public class ProductService {
             product.setActive(productUpdates.getActive());
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (productUpdates.getBasePrice() != null) {
+            priceIndex.invalidate(id);
+        }
+        if (productCache != null) {
+            productCache.invalidate(previous, saved);
+        }
+        if (searchIndex != null) {
+            searchIndex.index(saved);
+        }
+        if (suggestionIndex != null) {
+            suggestionIndex.index(saved);
+        }
+        return saved;
     }
 
     public void deleteProduct(Long id) {
         logger.info("Deleting product {} for tenant: {}", id, tenantService.getCurrentTenant());
+        if (productCache != null) {
+            productRepository.findById(id).ifPresent(productCache::invalidate);
+        }
         productRepository.deleteById(id);
+        priceIndex.invalidate(id);
+        if (searchIndex != null) {
+            searchIndex.remove(id);
+        }
+        if (suggestionIndex != null) {
+            suggestionIndex.remove(id);
+        }
     }
 
     public void deactivateProduct(Long id) {
@@ -119,6 +276,15 @@ public class ProductService {
         if (product.isPresent()) {
             product.get().setActive(false);
             productRepository.save(product.get());
+            if (productCache != null) {
+                productCache.invalidate(product.get());
+            }
+            if (searchIndex != null) {
+                searchIndex.remove(id);
+            }
+            if (suggestionIndex != null) {
+                suggestionIndex.remove(id);
+            }
         } else {
             throw new RuntimeException("Product not found with id: " + id);
         }
@@ -0,0 +1,107 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant snapshot of the active promotions, compiled and indexed by code and by id.
+ *
+ * <p>A tenant's snapshot is built on first use and replaced as a whole, so readers always see one
+ * consistent set of promotions without locking. Promotion writes call {@link #invalidate()}, which
+ * discards the tenant's snapshot after the transaction commits; the next lookup builds a new one.
+ * Usage limits are checked against the tenant's {@link PromotionUsageCounter} whenever a discount is
+ * evaluated, so a promotion stops applying as soon as its last redemption is reserved.
+ */
+@Component
+public class PromotionCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromotionCatalog.class);
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PromotionUsageCounter usageCounter;
+
+    public Optional<CompiledPromotion> findByCode(String code) {
+        return Optional.ofNullable(snapshot().byCode().get(code));
+    }
+
+    public Optional<CompiledPromotion> findById(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public void invalidate() {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId);
+                }
+            });
+        } else {
+            evict(tenantId);
+        }
+    }
+
+    private Snapshot snapshot() {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        Snapshot snapshot = snapshots.get(tenantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        // A snapshot built while an invalidation of the tenant was in flight is used once but not published.
+        AtomicLong generation = generation(tenantId);
+        long expected = generation.get();
+        snapshot = build(tenantId, promotionRepository.findByActiveTrue());
+        logger.debug("Compiled {} active promotions for tenant: {}", snapshot.byId().size(), tenantId);
+        if (generation.get() == expected) {
+            snapshots.putIfAbsent(tenantId, snapshot);
+        }
+        return snapshot;
+    }
+
+    private void evict(String tenantId) {
+        generation(tenantId).incrementAndGet();
+        snapshots.remove(tenantId);
+    }
+
+    private AtomicLong generation(String tenantId) {
+        return generations.computeIfAbsent(tenantId, id -> new AtomicLong());
+    }
+
+    private Snapshot build(String tenantId, List<Promotion> promotions) {
+        Map<String, CompiledPromotion> byCode = new HashMap<>();
+        Map<Long, CompiledPromotion> byId = new HashMap<>();
+        for (Promotion promotion : promotions) {
+            CompiledPromotion compiled = CompiledPromotion.compile(promotion,
+                () -> usageCounter.isExhausted(tenantId, promotion));
+            byCode.put(compiled.getCode(), compiled);
+            byId.put(compiled.getId(), compiled);
+        }
+        return new Snapshot(Map.copyOf(byCode), Map.copyOf(byId));
+    }
+
+    record Snapshot(Map<String, CompiledPromotion> byCode, Map<Long, CompiledPromotion> byId) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.config.TenantContext;
 import com.shoppingcart.multitenant.model.Promotion;
 import com.shoppingcart.multitenant.repository.PromotionRepository;
 import org.slf4j.Logger;
@@ -25,6 +26,12 @@ public class PromotionService {
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private PromotionCatalog promotionCatalog;
+
+    @Autowired
+    private PromotionUsageCounter usageCounter;
+
     public List<Promotion> getAllPromotions() {
         logger.debug("Getting all promotions for tenant: {}", tenantService.getCurrentTenant());
         return promotionRepository.findAll();
@@ -46,11 +53,26 @@ public class PromotionService {
         return promotionRepository.findById(id);
     }
 
+    /**
+     * A reference to the promotion for setting associations, without loading it.
+     */
+    public Promotion getPromotionReference(Long id) {
+        return promotionRepository.getReferenceById(id);
+    }
+
     public Optional<Promotion> getPromotionByCode(String code) {
         logger.debug("Getting promotion by code {} for tenant: {}", code, tenantService.getCurrentTenant());
         return promotionRepository.findByCodeAndActiveTrue(code);
     }
 
+    /**
+     * Looks up an active promotion in the tenant's compiled snapshot, without a query once the snapshot
+     * has been built.
+     */
+    public Optional<CompiledPromotion> getCompiledPromotion(String code) {
+        return promotionCatalog.findByCode(code);
+    }
+
     public Promotion createPromotion(Promotion promotion) {
         logger.info("Creating new promotion '{}' for tenant: {}", 
                    promotion.getName(), tenantService.getCurrentTenant());
@@ -59,7 +81,9 @@ public class PromotionService {
             promotion.setUsageCount(0);
         }
         
-        return promotionRepository.save(promotion);
+        Promotion saved = promotionRepository.save(promotion);
+        promotionCatalog.invalidate();
+        return saved;
     }
 
     public Promotion updatePromotion(Long id, Promotion promotionUpdates) {
@@ -94,6 +118,7 @@ public class PromotionService {
         }
         if (promotionUpdates.getUsageLimit() != null) {
             promotion.setUsageLimit(promotionUpdates.getUsageLimit());
+            usageCounter.updateLimit(id, promotionUpdates.getUsageLimit());
         }
         if (promotionUpdates.getValidFrom() != null) {
             promotion.setValidFrom(promotionUpdates.getValidFrom());
@@ -111,12 +136,15 @@ public class PromotionService {
             promotion.setActive(promotionUpdates.getActive());
         }
 
-        return promotionRepository.save(promotion);
+        Promotion saved = promotionRepository.save(promotion);
+        promotionCatalog.invalidate();
+        return saved;
     }
 
     public void deletePromotion(Long id) {
         logger.info("Deleting promotion {} for tenant: {}", id, tenantService.getCurrentTenant());
         promotionRepository.deleteById(id);
+        promotionCatalog.invalidate();
     }
 
     public void deactivatePromotion(Long id) {
@@ -126,6 +154,7 @@ public class PromotionService {
         if (promotion.isPresent()) {
             promotion.get().setActive(false);
             promotionRepository.save(promotion.get());
+            promotionCatalog.invalidate();
         } else {
             throw new RuntimeException("Promotion not found with id: " + id);
         }
@@ -135,54 +164,29 @@ public class PromotionService {
         if (promotion == null || !promotion.getActive()) {
             return BigDecimal.ZERO;
         }
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        return CompiledPromotion.compile(promotion, () -> usageCounter.isExhausted(tenantId, promotion))
+            .discount(orderAmount, LocalDateTime.now());
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(promotion.getValidFrom()) || now.isAfter(promotion.getValidTo())) {
-            return BigDecimal.ZERO;
-        }
-
-        if (promotion.getMinOrderAmount() != null && 
-            orderAmount.compareTo(promotion.getMinOrderAmount()) < 0) {
-            return BigDecimal.ZERO;
-        }
-
-        if (promotion.getUsageLimit() != null && 
-            promotion.getUsageCount() >= promotion.getUsageLimit()) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal discount = BigDecimal.ZERO;
-        
-        switch (promotion.getDiscountType()) {
-            case PERCENTAGE:
-                discount = orderAmount.multiply(promotion.getDiscountValue())
-                                    .divide(BigDecimal.valueOf(100));
-                break;
-            case FIXED_AMOUNT:
-                discount = promotion.getDiscountValue();
-                break;
-            case BUY_X_GET_Y:
-                discount = promotion.getDiscountValue();
-                break;
-        }
-
-        if (promotion.getMaxDiscountAmount() != null && 
-            discount.compareTo(promotion.getMaxDiscountAmount()) > 0) {
-            discount = promotion.getMaxDiscountAmount();
-        }
-
-        return discount;
+    /**
+     * Discount of an active promotion from the tenant's compiled snapshot; zero when the promotion is no
+     * longer active.
+     */
+    public BigDecimal calculateDiscountById(Long promotionId, BigDecimal orderAmount) {
+        return promotionCatalog.findById(promotionId)
+            .map(promotion -> promotion.discount(orderAmount, LocalDateTime.now()))
+            .orElse(BigDecimal.ZERO);
     }
 
-    public void incrementUsage(Long promotionId) {
+    /**
+     * Records a redemption. The count is kept in memory and written to the database in batches.
+     *
+     * @return {@code false} when the promotion's usage limit has been reached
+     */
+    public boolean incrementUsage(Long promotionId) {
         logger.debug("Incrementing usage for promotion {} for tenant: {}", 
                     promotionId, tenantService.getCurrentTenant());
-        
-        Optional<Promotion> promotion = promotionRepository.findById(promotionId);
-        if (promotion.isPresent()) {
-            Promotion p = promotion.get();
-            p.setUsageCount(p.getUsageCount() + 1);
-            promotionRepository.save(p);
-        }
+        return usageCounter.tryIncrement(promotionId);
     }
 }
\ No newline at end of file
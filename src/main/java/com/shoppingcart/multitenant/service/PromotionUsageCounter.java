@@ -0,0 +1,231 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory promotion usage counters that keep redemptions off the hot {@code promotions} row.
+ *
+ * <p>Each promotion gets a counter seeded from its persisted {@code usageCount} on first use.
+ * Promotions with a {@code usageLimit} are reserved with a compare-and-set on the counter, so the
+ * limit holds without a row lock; unlimited promotions only bump a striped {@link LongAdder}. The
+ * accumulated deltas are written back per tenant every {@code promotions.usage.flush-interval} and on
+ * shutdown. Each flush locks the promotions it touches and adds the deltas through the entities, so
+ * the second-level cache only drops those entries rather than the whole {@code Promotion} region.
+ *
+ * <p>The counters of a tenant that has redeemed nothing for {@code promotions.usage.idle-ttl} are
+ * dropped once flushed and seeded again on its next redemption. Those of a tenant that is no longer
+ * registered are dropped together with any unflushed redemptions.
+ *
+ * <p>The limit is enforced per application instance: each instance counts from the value it read
+ * when the counter was seeded plus its own redemptions.
+ */
+@Component
+public class PromotionUsageCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromotionUsageCounter.class);
+
+    private final Map<String, TenantCounters> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Counters dropped by the last flush. They are flushed once more, in case a redemption was
+     * recorded on them while they were being dropped, and then discarded.
+     */
+    private final Queue<TenantCounters> dropped = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${promotions.usage.idle-ttl:PT30M}")
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * Records one redemption of the promotion for the current tenant.
+     *
+     * @return {@code false} when the promotion's usage limit has been reached
+     */
+    public boolean tryIncrement(Long promotionId) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        TenantCounters tenant = tenants.computeIfAbsent(tenantId, TenantCounters::new);
+        tenant.lastUsed = System.nanoTime();
+        Map<Long, Counter> counters = tenant.counters;
+        Counter counter = counters.get(promotionId);
+        if (counter == null) {
+            Promotion promotion = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new RuntimeException("Promotion not found with id: " + promotionId));
+            counter = counters.computeIfAbsent(promotionId, id -> new Counter(promotion));
+        }
+        return counter.tryIncrement();
+    }
+
+    /**
+     * Redemptions of the promotion recorded in memory but not yet written to the database.
+     */
+    public long getPendingUsage(Long promotionId) {
+        Counter counter = counter(TenantContext.getCurrentTenantOrDefault(), promotionId);
+        return counter != null ? counter.pending.sum() : 0;
+    }
+
+    /**
+     * Whether the promotion has reached its usage limit in the tenant. Until this instance counts the
+     * promotion, it is judged by its persisted usage count.
+     */
+    public boolean isExhausted(String tenantId, Promotion promotion) {
+        Counter counter = counter(tenantId, promotion.getId());
+        return counter != null ? counter.isExhausted() : CompiledPromotion.isUsageExhausted(promotion);
+    }
+
+    /**
+     * Applies a changed usage limit to the promotion's counter, if it has one.
+     */
+    public void updateLimit(Long promotionId, Integer usageLimit) {
+        Counter counter = counter(TenantContext.getCurrentTenantOrDefault(), promotionId);
+        if (counter != null) {
+            counter.usageLimit = usageLimit;
+        }
+    }
+
+    private Counter counter(String tenantId, Long promotionId) {
+        TenantCounters tenant = tenants.get(tenantId);
+        return tenant != null ? tenant.counters.get(promotionId) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${promotions.usage.flush-interval:PT1S}")
+    public void flush() {
+        for (TenantCounters tenant; (tenant = dropped.poll()) != null; ) {
+            if (tenantRegistry.isRegistered(tenant.tenantId)) {
+                flush(tenant);
+            }
+        }
+        long now = System.nanoTime();
+        for (TenantCounters tenant : tenants.values()) {
+            if (!tenantRegistry.isRegistered(tenant.tenantId)) {
+                // Its connections would resolve to the default tenant, so there is nowhere to write to.
+                if (tenants.remove(tenant.tenantId, tenant)) {
+                    logger.info("Dropped promotion usage counters of unregistered tenant: {}", tenant.tenantId);
+                }
+            } else if (flush(tenant) && now - tenant.lastUsed >= idleTtl.toNanos()
+                    && tenants.remove(tenant.tenantId, tenant)) {
+                logger.debug("Dropped idle promotion usage counters of tenant: {}", tenant.tenantId);
+                dropped.add(tenant);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes the tenant's pending redemptions to the database.
+     *
+     * @return {@code false} if they could not be written and are pending again
+     */
+    private boolean flush(TenantCounters tenant) {
+        Map<Counter, Integer> deltas = new HashMap<>();
+        Map<Long, Integer> promotionDeltas = new HashMap<>();
+        tenant.counters.forEach((promotionId, counter) -> {
+            int delta = (int) counter.pending.sumThenReset();
+            if (delta > 0) {
+                deltas.put(counter, delta);
+                promotionDeltas.put(promotionId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return true;
+        }
+        try {
+            TenantContext.runWithTenant(tenant.tenantId, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    promotionRepository.findAllForUpdate(promotionDeltas.keySet()).forEach(promotion ->
+                        promotion.setUsageCount((promotion.getUsageCount() != null ? promotion.getUsageCount() : 0)
+                            + promotionDeltas.get(promotion.getId())))));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush promotion usage for tenant {}, will retry", tenant.tenantId, e);
+            deltas.forEach((counter, delta) -> counter.pending.add(delta));
+            return false;
+        }
+        deltas.forEach((counter, delta) -> {
+            if (counter.usageLimit == null) {
+                // Unlimited promotions skip the CAS; keep the total current in case a limit is set.
+                counter.used.addAndGet(delta);
+            }
+        });
+        logger.debug("Flushed usage of {} promotions for tenant: {}", deltas.size(), tenant.tenantId);
+        return true;
+    }
+
+    private static class TenantCounters {
+
+        private final String tenantId;
+
+        private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+        private volatile long lastUsed = System.nanoTime();
+
+        TenantCounters(String tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    private static class Counter {
+
+        private volatile Integer usageLimit;
+
+        private final AtomicInteger used;
+
+        private final LongAdder pending = new LongAdder();
+
+        Counter(Promotion promotion) {
+            this.usageLimit = promotion.getUsageLimit();
+            this.used = new AtomicInteger(promotion.getUsageCount() != null ? promotion.getUsageCount() : 0);
+        }
+
+        boolean tryIncrement() {
+            Integer limit = usageLimit;
+            if (limit != null) {
+                int current;
+                do {
+                    current = used.get();
+                    if (current >= limit) {
+                        return false;
+                    }
+                } while (!used.compareAndSet(current, current + 1));
+            }
+            pending.increment();
+            return true;
+        }
+
+        boolean isExhausted() {
+            Integer limit = usageLimit;
+            return limit != null && used.get() >= limit;
+        }
+    }
+}
@@ -1,32 +1,32 @@
 package com.shoppingcart.multitenant.service;
 
 import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class TenantService {
 
     private static final Logger logger = LoggerFactory.getLogger(TenantService.class);
-    
-    private static final List<String> AVAILABLE_TENANTS = Arrays.asList(
-        "default", "tenant1", "tenant2"
-    );
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
 
     public String getCurrentTenant() {
         return TenantContext.getCurrentTenant();
     }
 
     public boolean isValidTenant(String tenantId) {
-        return tenantId != null && AVAILABLE_TENANTS.contains(tenantId);
+        return tenantRegistry.isRegistered(tenantId);
     }
 
     public List<String> getAvailableTenants() {
-        return AVAILABLE_TENANTS;
+        return tenantRegistry.getTenantIds();
     }
 
     public void validateTenant(String tenantId) {
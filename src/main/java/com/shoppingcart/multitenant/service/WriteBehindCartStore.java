@@ -0,0 +1,334 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.model.CartItem;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind store for session carts, enabled with {@code carts.write-behind.enabled}.
+ *
+ * <p>Active carts are kept in memory per tenant and modified there; a cart is written to the
+ * {@code carts}/{@code cart_items} tables at most once per {@code carts.write-behind.flush-interval},
+ * however many times it changed in between, and every pending cart is written on shutdown. Changes
+ * made within the last flush interval are lost if the process dies, which is the durability window
+ * this mode trades for keeping the add-to-cart path off the database.
+ *
+ * <p>Modifications are applied to a copy of the cart that replaces the stored one only when the
+ * modification succeeds, so a failed validation leaves the cart untouched and the carts handed to
+ * callers are never changed afterwards. The modification runs outside the cart's lock, since it may
+ * query prices and promotions; its result is published only if no other change to the cart was
+ * published meanwhile, otherwise it is re-applied to the newer cart. Each tenant holds at most
+ * {@code carts.write-behind.max-carts-per-tenant} carts; clean carts idle for
+ * {@code carts.write-behind.idle-ttl} are dropped, and when a tenant is full {@link #modify} returns
+ * {@code null} so that the caller falls back to the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "carts.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private final Map<String, Map<String, CartEntry>> tenants = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${carts.write-behind.max-carts-per-tenant:10000}")
+    private int maxCartsPerTenant = 10000;
+
+    @Value("${carts.write-behind.idle-ttl:PT30M}")
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * Returns the session's cart, loading it with {@code loader} if it is not held yet.
+     *
+     * @return the cart, or {@code null} if the tenant's store is full
+     */
+    public Cart get(String sessionId, Supplier<Cart> loader) {
+        CartEntry entry = entry(sessionId, loader);
+        return entry != null ? entry.cart : null;
+    }
+
+    /**
+     * Applies {@code modification} to a copy of the session's cart and stores the result for the next
+     * flush. Exceptions thrown by the modification propagate and leave the stored cart unchanged. The
+     * modification may run more than once when the cart is changed concurrently, each time on a fresh
+     * copy.
+     *
+     * @return the modified cart, or {@code null} if the tenant's store is full
+     */
+    public Cart modify(String sessionId, Supplier<Cart> loader, Consumer<Cart> modification) {
+        while (true) {
+            CartEntry entry = entry(sessionId, loader);
+            if (entry == null) {
+                return null;
+            }
+            Cart base = entry.cart;
+            Cart cart = copy(base);
+            modification.accept(cart);
+            // The cart outlives the session, so a promotion set by reference is loaded while it is open.
+            Hibernate.initialize(cart.getAppliedPromotion());
+            cart.setUpdatedAt(LocalDateTime.now());
+
+            entry.lock.lock();
+            try {
+                if (entry.evicted || entry.cart != base) {
+                    continue;
+                }
+                entry.cart = cart;
+                entry.version++;
+                entry.lastAccess = System.nanoTime();
+                return cart;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${carts.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        for (Map.Entry<String, Map<String, CartEntry>> tenant : tenants.entrySet()) {
+            List<PendingWrite> writes = new ArrayList<>();
+            for (CartEntry entry : tenant.getValue().values()) {
+                PendingWrite pending = pendingWrite(entry);
+                if (pending != null) {
+                    writes.add(pending);
+                }
+            }
+            if (!writes.isEmpty()) {
+                flush(tenant.getKey(), writes);
+            }
+            evictIdle(tenant.getValue());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing pending carts before shutdown");
+        flush();
+    }
+
+    /**
+     * Writes a tenant's pending carts in one transaction. If that fails, the carts are retried one by
+     * one so that a single unwritable cart does not hold back the others.
+     */
+    private void flush(String tenantId, List<PendingWrite> writes) {
+        TenantContext.runWithTenant(tenantId, () -> {
+            if (!write(writes)) {
+                // The failed attempt may have assigned ids to the snapshots, so retry from fresh copies.
+                for (PendingWrite failed : writes) {
+                    PendingWrite pending = pendingWrite(failed.entry());
+                    if (pending != null && !write(List.of(pending))) {
+                        logger.warn("Failed to write cart {} for tenant {}, will retry",
+                            pending.snapshot().getSessionId(), tenantId);
+                    }
+                }
+            }
+            logger.debug("Flushed {} carts for tenant: {}", writes.size(), tenantId);
+        });
+    }
+
+    private PendingWrite pendingWrite(CartEntry entry) {
+        entry.lock.lock();
+        try {
+            if (entry.version == entry.flushedVersion) {
+                return null;
+            }
+            return new PendingWrite(entry, copy(entry.cart), entry.version);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private boolean write(List<PendingWrite> writes) {
+        List<Cart> saved;
+        try {
+            saved = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Cart> result = new ArrayList<>(writes.size());
+                for (PendingWrite pending : writes) {
+                    result.add(cartRepository.save(pending.snapshot()));
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            logger.debug("Writing {} carts failed", writes.size(), e);
+            return false;
+        }
+
+        for (int i = 0; i < writes.size(); i++) {
+            CartEntry entry = writes.get(i).entry();
+            entry.lock.lock();
+            try {
+                entry.cart = withIds(entry.cart, saved.get(i));
+                entry.flushedVersion = Math.max(entry.flushedVersion, writes.get(i).version());
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    private CartEntry entry(String sessionId, Supplier<Cart> loader) {
+        String tenantId = TenantContext.getCurrentTenantOrDefault();
+        Map<String, CartEntry> carts = tenants.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+        CartEntry entry = carts.get(sessionId);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            return entry;
+        }
+        if (carts.size() >= maxCartsPerTenant && !evictLeastRecentlyUsed(carts)) {
+            logger.debug("Write-behind cart store full for tenant: {}", tenantId);
+            return null;
+        }
+
+        Cart loaded = copy(loader.get());
+        CartEntry created = new CartEntry(loaded, loaded.getId() == null ? 1 : 0);
+        CartEntry existing = carts.putIfAbsent(sessionId, created);
+        return existing != null ? existing : created;
+    }
+
+    private void evictIdle(Map<String, CartEntry> carts) {
+        long now = System.nanoTime();
+        for (Map.Entry<String, CartEntry> cart : carts.entrySet()) {
+            CartEntry entry = cart.getValue();
+            entry.lock.lock();
+            try {
+                if (entry.version == entry.flushedVersion && now - entry.lastAccess >= idleTtl.toNanos()) {
+                    entry.evicted = true;
+                    carts.remove(cart.getKey(), entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed(Map<String, CartEntry> carts) {
+        Map.Entry<String, CartEntry> candidate = null;
+        for (Map.Entry<String, CartEntry> cart : carts.entrySet()) {
+            CartEntry entry = cart.getValue();
+            if (entry.version == entry.flushedVersion
+                    && (candidate == null || entry.lastAccess < candidate.getValue().lastAccess)) {
+                candidate = cart;
+            }
+        }
+        if (candidate == null) {
+            return false;
+        }
+        CartEntry entry = candidate.getValue();
+        entry.lock.lock();
+        try {
+            if (entry.version != entry.flushedVersion) {
+                return false;
+            }
+            entry.evicted = true;
+            return carts.remove(candidate.getKey(), entry);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the cart and its items into plain, fully initialised objects that can outlive the
+     * persistence context they were loaded in.
+     */
+    static Cart copy(Cart source) {
+        Cart cart = new Cart();
+        cart.setId(source.getId());
+        cart.setSessionId(source.getSessionId());
+        cart.setUserId(source.getUserId());
+        cart.setAppliedPromotion((Promotion) Hibernate.unproxy(source.getAppliedPromotion()));
+        cart.setSubtotal(source.getSubtotal());
+        cart.setDiscountAmount(source.getDiscountAmount());
+        cart.setTotalAmount(source.getTotalAmount());
+        cart.setCreatedAt(source.getCreatedAt());
+        cart.setUpdatedAt(source.getUpdatedAt());
+
+        cart.setItems(new ArrayList<>(source.getItems().size()));
+        for (CartItem sourceItem : source.getItems()) {
+            CartItem item = new CartItem();
+            item.setId(sourceItem.getId());
+            item.setCart(cart);
+            item.setProduct((Product) Hibernate.unproxy(sourceItem.getProduct()));
+            item.setQuantity(sourceItem.getQuantity());
+            item.setUnitPrice(sourceItem.getUnitPrice());
+            item.setTotalPrice(sourceItem.getTotalPrice());
+            item.setCreatedAt(sourceItem.getCreatedAt());
+            item.setUpdatedAt(sourceItem.getUpdatedAt());
+            cart.getItems().add(item);
+        }
+        return cart;
+    }
+
+    /**
+     * Returns a copy of {@code cart} carrying the ids generated when {@code saved} was written, so that
+     * the next flush updates the rows instead of inserting them again. Items are matched by product,
+     * which is unique within a cart.
+     */
+    private static Cart withIds(Cart cart, Cart saved) {
+        Cart result = copy(cart);
+        result.setId(saved.getId());
+        for (CartItem item : result.getItems()) {
+            if (item.getId() != null) {
+                continue;
+            }
+            for (CartItem savedItem : saved.getItems()) {
+                if (savedItem.getProduct().getId().equals(item.getProduct().getId())) {
+                    item.setId(savedItem.getId());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private record PendingWrite(CartEntry entry, Cart snapshot, long version) {
+    }
+
+    private static class CartEntry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile Cart cart;
+
+        private long version;
+
+        private long flushedVersion;
+
+        private boolean evicted;
+
+        private volatile long lastAccess = System.nanoTime();
+
+        CartEntry(Cart cart, long version) {
+            this.cart = cart;
+            this.version = version;
+        }
+    }
+}
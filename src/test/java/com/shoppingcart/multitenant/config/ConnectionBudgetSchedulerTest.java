@@ -0,0 +1,62 @@
+package com.shoppingcart.multitenant.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Connection Budget Scheduler Tests")
+class ConnectionBudgetSchedulerTest {
+
+    @Test
+    @DisplayName("Should size pools to demand when budget allows")
+    void shouldSizePoolsToDemandWhenBudgetAllows() {
+        // Given
+        Map<String, Double> demand = Map.of("busy", 7.2, "quiet", 0.0);
+        Map<String, Integer> caps = Map.of("busy", 10, "quiet", 10);
+
+        // When
+        Map<String, Integer> allocation = ConnectionBudgetScheduler.allocate(demand, caps, 2, 40);
+
+        // Then
+        assertThat(allocation).containsEntry("busy", 8).containsEntry("quiet", 2);
+    }
+
+    @Test
+    @DisplayName("Should never exceed tenant cap")
+    void shouldNeverExceedTenantCap() {
+        Map<String, Integer> allocation = ConnectionBudgetScheduler.allocate(
+            Map.of("busy", 50.0), Map.of("busy", 10), 2, 100);
+
+        assertThat(allocation).containsEntry("busy", 10);
+    }
+
+    @Test
+    @DisplayName("Should share connections above floors proportionally when over ceiling")
+    void shouldShareConnectionsAboveFloorsProportionallyWhenOverCeiling() {
+        // Given
+        Map<String, Double> demand = Map.of("a", 20.0, "b", 10.0, "c", 0.0);
+        Map<String, Integer> caps = Map.of("a", 20, "b", 20, "c", 20);
+
+        // When
+        Map<String, Integer> allocation = ConnectionBudgetScheduler.allocate(demand, caps, 2, 20);
+
+        // Then
+        assertThat(allocation.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(20);
+        assertThat(allocation.get("c")).isEqualTo(2);
+        assertThat(allocation.get("a")).isGreaterThan(allocation.get("b"));
+        assertThat(allocation.get("a")).isEqualTo(12);
+        assertThat(allocation.get("b")).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should keep floors even when ceiling is too small")
+    void shouldKeepFloorsEvenWhenCeilingIsTooSmall() {
+        Map<String, Integer> allocation = ConnectionBudgetScheduler.allocate(
+            Map.of("a", 5.0, "b", 5.0), Map.of("a", 10, "b", 10), 2, 3);
+
+        assertThat(allocation).containsEntry("a", 2).containsEntry("b", 2);
+    }
+}
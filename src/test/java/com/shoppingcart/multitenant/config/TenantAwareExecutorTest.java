@@ -0,0 +1,67 @@
+package com.shoppingcart.multitenant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tenant Aware Executor Tests")
+class TenantAwareExecutorTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newSingleThreadExecutor();
+        TenantContext.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should run futures and their async stages bound to the submitting tenant")
+    void shouldPropagateTenantToFutures() {
+        // Given
+        TenantAwareExecutor executor = new TenantAwareExecutor(pool);
+        TenantContext.setCurrentTenant("tenant1");
+
+        // When
+        CompletableFuture<String> first = executor.supplyAsync(TenantContext::getCurrentTenant);
+        CompletableFuture<String> chained = first.thenApplyAsync(
+            tenant -> tenant + "/" + TenantContext.getCurrentTenant(), executor.executor());
+
+        // Then
+        assertThat(first.join()).isEqualTo("tenant1");
+        assertThat(chained.join()).isEqualTo("tenant1/tenant1");
+    }
+
+    @Test
+    @DisplayName("Should leave pool threads without a tenant after a decorated task")
+    void shouldUnbindTenantAfterDecoratedTask() throws Exception {
+        // Given
+        TenantAwareTaskDecorator decorator = new TenantAwareTaskDecorator();
+        AtomicReference<String> seen = new AtomicReference<>();
+        TenantContext.setCurrentTenant("tenant2");
+        Runnable task = decorator.decorate(() -> seen.set(TenantContext.getCurrentTenant()));
+
+        // When
+        pool.submit(task).get();
+        Future<String> after = pool.submit(TenantContext::getCurrentTenant);
+
+        // Then
+        assertThat(seen.get()).isEqualTo("tenant2");
+        assertThat(after.get()).isNull();
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Tenant Context Tests")
 class TenantContextTest {
@@ -87,4 +88,30 @@ class TenantContextTest {
         // Then
         assertThat(TenantContext.getCurrentTenant()).isEqualTo(mainTenantId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should bind tenant for the duration of a call and restore the previous one")
+    void shouldRestorePreviousTenantAfterCall() {
+        // Given
+        TenantContext.setCurrentTenant("tenant1");
+
+        // When
+        String seen = TenantContext.callWithTenant("tenant2", TenantContext::getCurrentTenant);
+
+        // Then
+        assertThat(seen).isEqualTo("tenant2");
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo("tenant1");
+    }
+
+    @Test
+    @DisplayName("Should leave no tenant bound after a call that failed")
+    void shouldUnbindTenantWhenCallFails() {
+        // When
+        assertThatThrownBy(() -> TenantContext.runWithTenant("tenant1", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+}
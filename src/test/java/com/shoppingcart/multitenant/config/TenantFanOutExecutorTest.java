@@ -0,0 +1,131 @@
+package com.shoppingcart.multitenant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tenant Fan-Out Executor Tests")
+class TenantFanOutExecutorTest {
+
+    @Mock
+    private TenantRegistry tenantRegistry;
+
+    private TenantFanOutProperties properties;
+
+    private TenantFanOutExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantFanOutProperties();
+        properties.setThreads(8);
+        properties.setMaxPerHost(2);
+        properties.setTenantTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run the operation bound to each registered tenant and merge the results")
+    void shouldRunForEveryTenant() {
+        // Given
+        when(tenantRegistry.getTenantIds()).thenReturn(List.of("tenant1", "tenant2", "tenant3"));
+        when(tenantRegistry.getDatabaseHost(anyString())).thenReturn("db:3306");
+        executor = new TenantFanOutExecutor(tenantRegistry, properties);
+
+        // When
+        TenantFanOutExecutor.Result<String> result = executor.forEachTenant(TenantContext::getCurrentTenant);
+
+        // Then
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.results()).containsExactly(
+            Map.entry("tenant1", "tenant1"), Map.entry("tenant2", "tenant2"), Map.entry("tenant3", "tenant3"));
+        assertThat(result.merge("", String::concat)).isEqualTo("tenant1tenant2tenant3");
+    }
+
+    @Test
+    @DisplayName("Should limit concurrent tenants per database host")
+    void shouldBoundConcurrencyPerHost() {
+        // Given
+        List<String> tenants = List.of("a1", "a2", "a3", "a4", "a5", "a6", "b1", "b2");
+        when(tenantRegistry.getDatabaseHost(anyString()))
+            .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("a") ? "host-a" : "host-b");
+        executor = new TenantFanOutExecutor(tenantRegistry, properties);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+
+        // When
+        TenantFanOutExecutor.Result<Integer> result = executor.forTenants(tenants, () -> {
+            String host = TenantContext.getCurrentTenant().substring(0, 1);
+            int now = running.computeIfAbsent(host, h -> new AtomicInteger()).incrementAndGet();
+            peak.computeIfAbsent(host, h -> new AtomicInteger()).accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.get(host).decrementAndGet();
+            return 1;
+        });
+
+        // Then
+        assertThat(result.merge(0, Integer::sum)).isEqualTo(8);
+        assertThat(peak.get("a").get()).isLessThanOrEqualTo(2);
+        assertThat(peak.get("b").get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report failing and timed-out tenants without affecting the others")
+    void shouldIsolateFailuresAndTimeouts() throws InterruptedException {
+        // Given
+        properties.setTenantTimeout(Duration.ofMillis(200));
+        when(tenantRegistry.getDatabaseHost(anyString())).thenReturn("db:3306");
+        executor = new TenantFanOutExecutor(tenantRegistry, properties);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When
+        TenantFanOutExecutor.Result<String> result = executor.forTenants(List.of("fails", "hangs", "works"), () -> {
+            String tenantId = TenantContext.getCurrentTenant();
+            if (tenantId.equals("fails")) {
+                throw new IllegalStateException("boom");
+            }
+            if (tenantId.equals("hangs")) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return tenantId;
+        });
+
+        // Then
+        assertThat(result.results()).containsOnlyKeys("works");
+        assertThat(result.failures().get("fails")).isInstanceOf(IllegalStateException.class);
+        assertThat(result.failures().get("hangs")).isInstanceOf(TimeoutException.class);
+        assertThat(result.timedOut()).containsExactly("hangs");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
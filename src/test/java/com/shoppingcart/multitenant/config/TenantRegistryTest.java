@@ -0,0 +1,265 @@
+package com.shoppingcart.multitenant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tenant Registry Tests")
+class TenantRegistryTest {
+
+    private TenantRegistryProperties properties;
+
+    private TenantRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantRegistryProperties();
+        properties.setMaxTotalConnections(4);
+        properties.setIdleTtl(Duration.ofMinutes(10));
+
+        Map<String, TenantProperties> tenants = new HashMap<>();
+        tenants.put("default", tenant("registry_default"));
+        tenants.put("tenant1", tenant("registry_tenant1"));
+        tenants.put("tenant2", tenant("registry_tenant2"));
+        registry = new TenantRegistry(tenants, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    @Test
+    @DisplayName("Should open tenant pool lazily on first connection")
+    void shouldOpenTenantPoolLazilyOnFirstConnection() throws Exception {
+        // Given
+        assertThat(registry.isPoolOpen("tenant1")).isFalse();
+
+        // When
+        try (Connection connection = registry.getConnection("tenant1")) {
+            // Then
+            assertThat(connection.getMetaData().getURL()).contains("registry_tenant1");
+        }
+        assertThat(registry.isPoolOpen("tenant1")).isTrue();
+        assertThat(registry.isPoolOpen("tenant2")).isFalse();
+        assertThat(registry.getReservedConnections()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fall back to default tenant for unknown tenant")
+    void shouldFallBackToDefaultTenantForUnknownTenant() throws Exception {
+        try (Connection connection = registry.getConnection("unknown")) {
+            assertThat(connection.getMetaData().getURL()).contains("registry_default");
+        }
+        assertThat(registry.isPoolOpen("unknown")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should evict pools that exceeded idle TTL")
+    void shouldEvictPoolsThatExceededIdleTtl() throws Exception {
+        // Given
+        registry.getConnection("tenant1").close();
+        properties.setIdleTtl(Duration.ZERO);
+
+        // When
+        registry.evictIdlePools();
+
+        // Then
+        assertThat(registry.isPoolOpen("tenant1")).isFalse();
+        assertThat(registry.getReservedConnections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep pools with active connections during eviction")
+    void shouldKeepPoolsWithActiveConnectionsDuringEviction() throws Exception {
+        // Given
+        properties.setIdleTtl(Duration.ZERO);
+
+        try (Connection ignored = registry.getConnection("tenant1")) {
+            // When
+            registry.evictIdlePools();
+
+            // Then
+            assertThat(registry.isPoolOpen("tenant1")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should close least recently used idle pool when budget is full")
+    void shouldCloseLeastRecentlyUsedIdlePoolWhenBudgetIsFull() throws Exception {
+        // Given
+        registry.getConnection("default").close();
+        registry.getConnection("tenant1").close();
+
+        // When
+        registry.getConnection("tenant2").close();
+
+        // Then
+        assertThat(registry.isPoolOpen("default")).isFalse();
+        assertThat(registry.isPoolOpen("tenant1")).isTrue();
+        assertThat(registry.isPoolOpen("tenant2")).isTrue();
+        assertThat(registry.getReservedConnections()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reject new pool when budget is held by busy pools past the connection timeout")
+    void shouldRejectNewPoolWhenBudgetIsHeldByBusyPools() throws Exception {
+        // Given
+        TenantProperties tenant2 = tenant("registry_tenant2");
+        tenant2.getDatasource().getHikari().setConnectionTimeout(250);
+        registry.register("tenant2", tenant2);
+
+        try (Connection first = registry.getConnection("default");
+             Connection second = registry.getConnection("tenant1")) {
+            // When & Then
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> registry.getConnection("tenant2"))
+                .isInstanceOf(ConnectionBudgetExhaustedException.class)
+                .hasMessageContaining("Connection budget of 4 exhausted");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+        }
+    }
+
+    @Test
+    @DisplayName("Should open new pool once a busy pool frees budget within the connection timeout")
+    void shouldOpenNewPoolOnceBudgetIsFreed() throws Exception {
+        // Given
+        Connection first = registry.getConnection("default");
+        Connection second = registry.getConnection("tenant1");
+        CompletableFuture<Boolean> opened = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = registry.getConnection("tenant2")) {
+                return connection.getMetaData().getURL().contains("registry_tenant2");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // When
+        Thread.sleep(200);
+        first.close();
+
+        // Then
+        assertThat(opened.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.isPoolOpen("default")).isFalse();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should register and unregister tenants at runtime")
+    void shouldRegisterAndUnregisterTenantsAtRuntime() throws Exception {
+        // Given
+        registry.register("tenant3", tenant("registry_tenant3"));
+
+        // When
+        registry.getConnection("tenant3").close();
+
+        // Then
+        assertThat(registry.getTenantIds()).containsExactly("default", "tenant1", "tenant2", "tenant3");
+        assertThat(registry.isPoolOpen("tenant3")).isTrue();
+
+        registry.unregister("tenant3");
+        assertThat(registry.isRegistered("tenant3")).isFalse();
+        assertThat(registry.isPoolOpen("tenant3")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should open pools at budget floor and resize within budget")
+    void shouldOpenPoolsAtBudgetFloorAndResizeWithinBudget() throws Exception {
+        // Given
+        properties.getBudget().setEnabled(true);
+        properties.getBudget().setFloor(1);
+        registry.getConnection("tenant1").close();
+        assertThat(registry.getReservedConnections()).isEqualTo(1);
+
+        // When & Then
+        assertThat(registry.resizePool("tenant1", 2)).isTrue();
+        assertThat(registry.getReservedConnections()).isEqualTo(2);
+        assertThat(registry.getPoolUsage())
+            .singleElement()
+            .satisfies(usage -> {
+                assertThat(usage.tenantId()).isEqualTo("tenant1");
+                assertThat(usage.reserved()).isEqualTo(2);
+                assertThat(usage.maximumPoolSize()).isEqualTo(2);
+            });
+        assertThat(registry.resizePool("tenant1", 5)).isFalse();
+        assertThat(registry.getReservedConnections()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should share one pool and switch schema per tenant in schema mode")
+    void shouldShareOnePoolAndSwitchSchemaPerTenantInSchemaMode() throws Exception {
+        // Given
+        properties.setMode(TenantRegistryProperties.Mode.SCHEMA);
+        properties.setSchemaSwitch(TenantRegistryProperties.SchemaSwitch.SCHEMA);
+        TenantProperties shared = tenant("registry_default");
+        shared.setSchema("PUBLIC");
+        registry.register("default", shared);
+        TenantProperties tenant1 = new TenantProperties();
+        tenant1.setSchema("TENANT1_SCHEMA");
+        registry.register("tenant1", tenant1);
+        try (Connection connection = registry.getConnection("default");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS TENANT1_SCHEMA");
+            statement.execute("CREATE SCHEMA IF NOT EXISTS \"tenant2\"");
+        }
+
+        // When & Then
+        try (Connection connection = registry.getConnection("tenant1")) {
+            assertThat(connection.getSchema()).isEqualTo("TENANT1_SCHEMA");
+            assertThat(connection.getMetaData().getURL()).contains("registry_default");
+        }
+        try (Connection connection = registry.getDataSource("tenant2").getConnection()) {
+            assertThat(connection.getSchema()).isEqualTo("tenant2");
+        }
+        assertThat(registry.isPoolOpen("default")).isTrue();
+        assertThat(registry.isPoolOpen("tenant1")).isFalse();
+        assertThat(registry.getReservedConnections()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should derive database host from the tenant's JDBC URL")
+    void shouldDeriveDatabaseHostFromUrl() {
+        // Given
+        TenantProperties remote = tenant("unused");
+        remote.getDatasource().setUrl("jdbc:mysql://mysql-tenant3:3306/tenant3_db?useSSL=false");
+        registry.register("tenant3", remote);
+
+        // When & Then
+        assertThat(registry.getDatabaseHost("tenant3")).isEqualTo("mysql-tenant3:3306");
+        assertThat(registry.getDatabaseHost("tenant1")).isEqualTo("jdbc:h2:mem:registry_tenant1");
+        assertThat(registry.getDatabaseHost("unknown")).isEqualTo("jdbc:h2:mem:registry_default");
+    }
+
+    @Test
+    @DisplayName("Should place every tenant on the shared host in schema mode")
+    void shouldUseSharedHostInSchemaMode() {
+        // Given
+        properties.setMode(TenantRegistryProperties.Mode.SCHEMA);
+
+        // When & Then
+        assertThat(registry.getDatabaseHost("tenant2")).isEqualTo("jdbc:h2:mem:registry_default");
+    }
+
+    private TenantProperties tenant(String database) {
+        TenantProperties tenant = new TenantProperties();
+        tenant.getDatasource().setUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        tenant.getDatasource().setDriverClassName("org.h2.Driver");
+        tenant.getDatasource().setUsername("sa");
+        tenant.getDatasource().setPassword("");
+        tenant.getDatasource().getHikari().setMaximumPoolSize(2);
+        return tenant;
+    }
+}
@@ -0,0 +1,92 @@
+package com.shoppingcart.multitenant.config;
+
+import com.shoppingcart.multitenant.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tenant Schema Initializer Tests")
+class TenantSchemaInitializerTest {
+
+    private static final String NAME = "Seeded Product";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(entityManager -> entityManager.createQuery("DELETE FROM Product p WHERE p.name = :name")
+            .setParameter("name", NAME)
+            .executeUpdate());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should advance a tenant's id generator past the ids already stored, and never rewind it")
+    void shouldAdvanceGeneratorPastStoredIds() {
+        // Given
+        TenantContext.setCurrentTenant(TenantContext.DEFAULT_TENANT);
+        Long legacyId = inTransaction(entityManager -> {
+            Product product = product("LEGACY-");
+            entityManager.persist(product);
+            entityManager.flush();
+            entityManager.createNativeQuery("UPDATE products SET id = 100000 WHERE id = :id")
+                .setParameter("id", product.getId())
+                .executeUpdate();
+            return 100000L;
+        });
+        TenantSchemaInitializer initializer = new TenantSchemaInitializer(mock(TenantFanOutExecutor.class));
+        initializer.integrate(null, null, entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+
+        // When
+        int advanced = initializer.initializeCurrentTenant();
+        int advancedAgain = initializer.initializeCurrentTenant();
+
+        // Then
+        assertThat(advanced).isPositive();
+        assertThat(advancedAgain).isZero();
+        TenantContext.setCurrentTenant("tenant-" + System.nanoTime());
+        Long newId = inTransaction(entityManager -> {
+            Product product = product("NEW-");
+            entityManager.persist(product);
+            return product.getId();
+        });
+        assertThat(newId).isGreaterThan(legacyId);
+    }
+
+    private Product product(String skuPrefix) {
+        Product product = new Product();
+        product.setName(NAME);
+        product.setSku(skuPrefix + System.nanoTime());
+        product.setBasePrice(new BigDecimal("10.00"));
+        product.setStockQuantity(5);
+        return product;
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.shoppingcart.multitenant.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.service.ProductImportService;
 import com.shoppingcart.multitenant.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,9 @@ class ProductControllerIntegrationTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
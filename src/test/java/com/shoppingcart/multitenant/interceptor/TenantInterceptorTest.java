@@ -0,0 +1,123 @@
+package com.shoppingcart.multitenant.interceptor;
+
+import com.shoppingcart.multitenant.config.ConnectionBudgetExhaustedException;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tenant Interceptor Tests")
+class TenantInterceptorTest {
+
+    @Mock
+    private TenantRegistry tenantRegistry;
+
+    @InjectMocks
+    private TenantInterceptor tenantInterceptor;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should bind a registered tenant and the default tenant when none is given")
+    void shouldBindRegisteredTenant() throws Exception {
+        // Given
+        when(tenantRegistry.isRegistered("tenant1")).thenReturn(true);
+        when(tenantRegistry.isRegistered(TenantContext.DEFAULT_TENANT)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("X-Tenant-ID", "tenant1");
+
+        // When & Then
+        assertThat(tenantInterceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo("tenant1");
+
+        assertThat(tenantInterceptor.preHandle(new MockHttpServletRequest("GET", "/api/products"),
+            new MockHttpServletResponse(), null)).isTrue();
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Test
+    @DisplayName("Should bind the default tenant for IP hosts and unregistered subdomains")
+    void shouldFallBackToDefaultTenantForHostsWithoutTenant() throws Exception {
+        // Given
+        when(tenantRegistry.isRegistered(TenantContext.DEFAULT_TENANT)).thenReturn(true);
+        MockHttpServletRequest ipRequest = new MockHttpServletRequest("GET", "/api/products");
+        ipRequest.setServerName("10.0.0.5");
+        MockHttpServletRequest apiRequest = new MockHttpServletRequest("GET", "/api/products");
+        apiRequest.setServerName("api.example.com");
+
+        // When & Then
+        assertThat(tenantInterceptor.preHandle(ipRequest, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo(TenantContext.DEFAULT_TENANT);
+
+        assertThat(tenantInterceptor.preHandle(apiRequest, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo(TenantContext.DEFAULT_TENANT);
+        verify(tenantRegistry, never()).isRegistered("10");
+    }
+
+    @Test
+    @DisplayName("Should bind a registered tenant taken from the subdomain")
+    void shouldBindRegisteredSubdomain() throws Exception {
+        // Given
+        when(tenantRegistry.isRegistered("tenant2")).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setServerName("tenant2.shop.example.com");
+
+        // When & Then
+        assertThat(tenantInterceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(TenantContext.getCurrentTenant()).isEqualTo("tenant2");
+    }
+
+    @Test
+    @DisplayName("Should reject a tenant that is not registered")
+    void shouldRejectUnknownTenant() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("X-Tenant-ID", "tenant-" + System.nanoTime());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = tenantInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 when there is no connection budget for the tenant's pool")
+    void shouldRejectTenantWithoutConnectionBudget() throws Exception {
+        // Given
+        when(tenantRegistry.isRegistered("tenant1")).thenReturn(true);
+        doThrow(new ConnectionBudgetExhaustedException("Connection budget of 4 exhausted"))
+            .when(tenantRegistry).ensurePoolOpen("tenant1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("X-Tenant-ID", "tenant1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = tenantInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+}
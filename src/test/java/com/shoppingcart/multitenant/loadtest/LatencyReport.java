@@ -0,0 +1,91 @@
+package com.shoppingcart.multitenant.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per endpoint and per tenant, recorded in microseconds and reported in
+ * milliseconds.
+ */
+class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Series> endpoints = new ConcurrentHashMap<>();
+
+    private final Map<String, Series> tenants = new ConcurrentHashMap<>();
+
+    void record(String endpoint, String tenantId, long elapsedNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        endpoints.computeIfAbsent(endpoint, key -> new Series()).record(micros, success);
+        tenants.computeIfAbsent(tenantId, key -> new Series()).record(micros, success);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-40s %10s %8s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        new TreeMap<>(endpoints).forEach((endpoint, series) -> {
+            Histogram h = series.histogram;
+            out.printf("%-40s %10d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, h.getTotalCount(),
+                series.errors.sum(), millis(h, 50), millis(h, 90), millis(h, 99), millis(h, 99.9),
+                h.getMaxValue() / MICROS_PER_MILLI);
+        });
+    }
+
+    /**
+     * Writes {@code endpoints.csv} and {@code tenants.csv} summaries plus one HdrHistogram percentile
+     * distribution ({@code .hgrm}) per endpoint to {@code directory}.
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        writeSummary(directory.resolve("endpoints.csv"), "endpoint", endpoints);
+        writeSummary(directory.resolve("tenants.csv"), "tenant", tenants);
+        for (Map.Entry<String, Series> endpoint : endpoints.entrySet()) {
+            String fileName = endpoint.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                endpoint.getValue().histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private void writeSummary(Path file, String keyName, Map<String, Series> series) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            out.println(keyName + ",requests,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            new TreeMap<>(series).forEach((key, s) -> {
+                Histogram h = s.histogram;
+                out.printf("%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", key, h.getTotalCount(), s.errors.sum(),
+                    millis(h, 50), millis(h, 90), millis(h, 99), millis(h, 99.9), h.getMaxValue() / MICROS_PER_MILLI);
+            });
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static class Series {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        private final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean success) {
+            histogram.recordValue(micros);
+            if (!success) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.shoppingcart.multitenant.loadtest;
+
+import com.shoppingcart.multitenant.MultiTenantShoppingCartApplication;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-tenant load generator. Boots the application on a random port with {@code --tenants} H2
+ * stand-in tenant databases, seeds each tenant with products, price tiers and a promotion, and then
+ * drives a weighted mix of shopper operations from {@code --threads} workers for {@code --duration}.
+ * Tenants are picked with Zipf-distributed popularity, so {@code tenant1} is the busiest.
+ *
+ * <p>Latencies recorded after {@code --warmup} are written as HdrHistogram percentiles per endpoint
+ * and per tenant to {@code --output}. Run with {@code mvn -Ploadtest test-compile exec:exec}, passing
+ * options through {@code -Dloadtest.args="--tenants=200 --duration=PT2M"}.
+ *
+ * <p>Options and defaults: {@code --tenants=200 --products=20 --threads=32 --duration=PT60S
+ * --warmup=PT10S --zipf=1.1 --max-connections=100 --mix=browse=60,add=25,promotion=10,checkout=5
+ * --output=target/loadtest}.
+ */
+public class LoadGenerator {
+
+    private static final String PROMOTION_CODE = "LOAD10";
+
+    private static final String TENANT_SCHEMA = "classpath:loadtest/schema.sql";
+
+    private final Options options;
+
+    private final LatencyReport report = new LatencyReport();
+
+    private final Map<String, List<Long>> productIds = new HashMap<>();
+
+    private String baseUrl;
+
+    LoadGenerator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(Options.parse(args)).run();
+    }
+
+    void run() throws Exception {
+        try (ConfigurableApplicationContext context = SpringApplication.run(
+                MultiTenantShoppingCartApplication.class, applicationArgs())) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Seeding %d tenants with %d products each%n", options.tenants, options.products);
+            seed(context);
+
+            System.out.printf("Running %d workers for %s (warmup %s) against %s%n",
+                options.threads, options.duration, options.warmup, baseUrl);
+            drive();
+        }
+
+        report.print(System.out);
+        report.write(options.output);
+        System.out.printf("Histograms written to %s%n", options.output.toAbsolutePath());
+    }
+
+    private String[] applicationArgs() {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.shoppingcart=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "--multitenancy.registry.max-total-connections=" + options.maxConnections));
+        tenantArgs(args, TenantContext.DEFAULT_TENANT);
+        for (int i = 1; i <= options.tenants; i++) {
+            tenantArgs(args, tenantId(i - 1));
+        }
+        return args.toArray(String[]::new);
+    }
+
+    private void tenantArgs(List<String> args, String tenantId) {
+        String prefix = "--tenants." + tenantId + ".datasource.";
+        args.add(prefix + "url=jdbc:h2:mem:loadtest_" + tenantId
+            + ";MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM '" + TENANT_SCHEMA + "'");
+        args.add(prefix + "driver-class-name=org.h2.Driver");
+        args.add(prefix + "username=sa");
+        args.add(prefix + "password=");
+        args.add(prefix + "hikari.maximum-pool-size=2");
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        ProductRepository products = context.getBean(ProductRepository.class);
+        PriceRepository prices = context.getBean(PriceRepository.class);
+        PromotionRepository promotions = context.getBean(PromotionRepository.class);
+
+        for (int t = 0; t < options.tenants; t++) {
+            String tenantId = tenantId(t);
+            TenantContext.runWithTenant(tenantId, () -> {
+                List<Product> seeded = new ArrayList<>(options.products);
+                for (int i = 0; i < options.products; i++) {
+                    Product product = new Product();
+                    product.setName("Load Product " + i);
+                    product.setDescription("Load test product " + i + " of " + tenantId);
+                    product.setSku("LOAD-" + i);
+                    product.setCategory("Category " + i % 5);
+                    product.setBasePrice(new BigDecimal("19.99").add(BigDecimal.valueOf(i)));
+                    product.setStockQuantity(1_000_000);
+                    seeded.add(product);
+                }
+                seeded = products.saveAll(seeded);
+
+                List<Price> tiers = new ArrayList<>(seeded.size());
+                for (Product product : seeded) {
+                    Price price = new Price();
+                    price.setProduct(product);
+                    price.setPrice(product.getBasePrice().subtract(BigDecimal.ONE));
+                    price.setMinQuantity(3);
+                    tiers.add(price);
+                }
+                prices.saveAll(tiers);
+
+                Promotion promotion = new Promotion();
+                promotion.setName("Load test");
+                promotion.setCode(PROMOTION_CODE);
+                promotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
+                promotion.setDiscountValue(new BigDecimal("10"));
+                promotion.setValidFrom(LocalDateTime.now().minusDays(1));
+                promotion.setValidTo(LocalDateTime.now().plusDays(30));
+                promotions.save(promotion);
+
+                productIds.put(tenantId, seeded.stream().map(Product::getId).toList());
+            });
+        }
+    }
+
+    private void drive() throws InterruptedException {
+        ZipfSampler tenants = new ZipfSampler(options.tenants, options.zipfExponent);
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long deadline = measureFrom + options.duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads);
+        for (int i = 0; i < options.threads; i++) {
+            workers.execute(() -> {
+                // One client per worker so that each worker keeps its own session cookie, i.e. its own carts.
+                HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    String tenantId = tenantId(tenants.next());
+                    perform(client, tenantId, options.mix.next(), System.nanoTime() >= measureFrom);
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(options.warmup.plus(options.duration).plusMinutes(1).toMillis(),
+                TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void perform(HttpClient client, String tenantId, Operation operation, boolean measured) {
+        List<Long> ids = productIds.get(tenantId);
+        Long productId = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        switch (operation) {
+            case BROWSE -> send(client, tenantId, measured, "GET /api/products/{id}",
+                request("/api/products/" + productId).GET());
+            case ADD -> send(client, tenantId, measured, "POST /api/cart/items",
+                request("/api/cart/items?productId=" + productId + "&quantity=1")
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            case PROMOTION -> send(client, tenantId, measured, "POST /api/cart/promotions/{code}",
+                request("/api/cart/promotions/" + PROMOTION_CODE).POST(HttpRequest.BodyPublishers.noBody()));
+            case CHECKOUT -> {
+                // There is no order endpoint; a checkout reads the final cart and empties it.
+                send(client, tenantId, measured, "GET /api/cart", request("/api/cart").GET());
+                send(client, tenantId, measured, "DELETE /api/cart/clear", request("/api/cart/clear").DELETE());
+            }
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private void send(HttpClient client, String tenantId, boolean measured, String endpoint,
+                      HttpRequest.Builder request) {
+        long startedAt = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = client.send(request.header("X-Tenant-ID", tenantId).build(),
+                HttpResponse.BodyHandlers.discarding());
+            // 4xx answers such as a promotion that does not apply to an empty cart are valid outcomes.
+            success = response.statusCode() < 500;
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            report.record(endpoint, tenantId, System.nanoTime() - startedAt, success);
+        }
+    }
+
+    private static String tenantId(int rank) {
+        // tenant1 and tenant2 are also the tenants the sample data loader expects to exist.
+        return "tenant" + (rank + 1);
+    }
+
+    enum Operation {
+        BROWSE, ADD, PROMOTION, CHECKOUT
+    }
+
+    /**
+     * Weighted choice between operations, e.g. {@code browse=60,add=25,promotion=10,checkout=5}.
+     */
+    static class OperationMix {
+
+        private final Operation[] operations;
+
+        private final int[] cumulativeWeights;
+
+        OperationMix(Map<Operation, Integer> weights) {
+            operations = weights.keySet().toArray(Operation[]::new);
+            cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += weights.get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Operation mix needs a positive total weight");
+            }
+        }
+
+        static OperationMix parse(String mix) {
+            Map<Operation, Integer> weights = new LinkedHashMap<>();
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid operation mix entry: " + entry);
+                }
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+            }
+            return new OperationMix(weights);
+        }
+
+        Operation next() {
+            int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (draw < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+
+    static class Options {
+
+        int tenants = 200;
+
+        int products = 20;
+
+        int threads = 32;
+
+        Duration duration = Duration.ofSeconds(60);
+
+        Duration warmup = Duration.ofSeconds(10);
+
+        double zipfExponent = 1.1;
+
+        int maxConnections = 100;
+
+        OperationMix mix = OperationMix.parse("browse=60,add=25,promotion=10,checkout=5");
+
+        Path output = Path.of("target", "loadtest");
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "tenants" -> options.tenants = Integer.parseInt(value);
+                    case "products" -> options.products = Integer.parseInt(value);
+                    case "threads" -> options.threads = Integer.parseInt(value);
+                    case "duration" -> options.duration = Duration.parse(value);
+                    case "warmup" -> options.warmup = Duration.parse(value);
+                    case "zipf" -> options.zipfExponent = Double.parseDouble(value);
+                    case "max-connections" -> options.maxConnections = Integer.parseInt(value);
+                    case "mix" -> options.mix = OperationMix.parse(value);
+                    case "output" -> options.output = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            if (options.tenants < 2) {
+                throw new IllegalArgumentException("The sample data loader needs at least tenant1 and tenant2");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.shoppingcart.multitenant.metrics;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.service.PriceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Service Metrics Aspect Tests")
+class ServiceMetricsAspectTest {
+
+    private MeterRegistry registry;
+
+    private PriceService target;
+
+    private PriceService priceService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(PriceService.class);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(new TenantMetrics(registry)));
+        priceService = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should time service calls per tenant")
+    void shouldTimeServiceCallsPerTenant() {
+        // Given
+        TenantContext.setCurrentTenant("tenant1");
+        when(target.getEffectivePrice(1L, null, 1)).thenReturn(new BigDecimal("10.00"));
+
+        // When
+        priceService.getEffectivePrice(1L, null, 1);
+        priceService.getEffectivePrice(1L, null, 1);
+
+        // Then
+        Timer timer = registry.get(TenantMetrics.SERVICE_CALLS)
+            .tag("tenant", "tenant1")
+            .tag("method", "getEffectivePrice")
+            .tag("exception", "none")
+            .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should tag failed calls with the exception and the default tenant")
+    void shouldTagFailedCalls() {
+        // Given
+        when(target.getEffectivePrice(99L, null, 1)).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        assertThatThrownBy(() -> priceService.getEffectivePrice(99L, null, 1))
+            .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(registry.get(TenantMetrics.SERVICE_CALLS)
+            .tag("tenant", TenantContext.DEFAULT_TENANT)
+            .tag("exception", "IllegalStateException")
+            .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.shoppingcart.multitenant.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tenant Tag Limiter Tests")
+class TenantTagLimiterTest {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new TenantTagLimiter(2, tenantId -> tenantId.startsWith("tenant")));
+    }
+
+    @Test
+    @DisplayName("Should fold tenants beyond the limit into the overflow tag")
+    void shouldFoldTenantsBeyondLimit() {
+        // When
+        registry.counter("calls", "tenant", "tenant1").increment();
+        registry.counter("calls", "tenant", "tenant2").increment();
+        registry.counter("calls", "tenant", "tenant3").increment();
+        registry.counter("calls", "tenant", "tenant4").increment();
+
+        // Then
+        assertThat(registry.find("calls").counters()).hasSize(3);
+        assertThat(registry.get("calls").tag("tenant", "tenant1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("calls").tag("tenant", TenantTagLimiter.OVERFLOW_TENANT).counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep tagging tenants that were seen before the limit was reached")
+    void shouldKeepTaggedTenants() {
+        // Given
+        registry.counter("calls", "tenant", "tenant1").increment();
+        registry.counter("calls", "tenant", "tenant2").increment();
+        registry.counter("calls", "tenant", "tenant3").increment();
+
+        // When
+        registry.timer("latency", "tenant", "tenant2", "method", "get");
+
+        // Then
+        assertThat(registry.find("latency").tag("tenant", "tenant2").timer()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should leave meters without a tenant tag untouched")
+    void shouldIgnoreMetersWithoutTenantTag() {
+        // When
+        registry.counter("calls", "tenant", "tenant1").increment();
+        registry.counter("calls", "tenant", "tenant2").increment();
+        registry.counter("jvm.other", "area", "heap").increment();
+
+        // Then
+        assertThat(registry.get("jvm.other").tag("area", "heap").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fold values that are not registered tenants without using a slot")
+    void shouldFoldUnregisteredTenants() {
+        // When
+        registry.counter("calls", "tenant", "bogus-1").increment();
+        registry.counter("calls", "tenant", "bogus-2").increment();
+        registry.counter("calls", "tenant", "tenant1").increment();
+        registry.counter("calls", "tenant", "tenant2").increment();
+
+        // Then
+        assertThat(registry.get("calls").tag("tenant", TenantTagLimiter.OVERFLOW_TENANT).counter().count())
+            .isEqualTo(2);
+        assertThat(registry.get("calls").tag("tenant", "tenant2").counter().count()).isEqualTo(1);
+    }
+}
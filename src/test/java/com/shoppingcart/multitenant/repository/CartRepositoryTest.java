@@ -0,0 +1,167 @@
+package com.shoppingcart.multitenant.repository;
+
+import com.shoppingcart.multitenant.dto.CartView;
+import com.shoppingcart.multitenant.dto.CartViewRow;
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.model.CartItem;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.model.Promotion;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Cart Repository Tests")
+class CartRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Promotion promotion = new Promotion();
+        promotion.setName("Ten Off");
+        promotion.setCode("TEN");
+        promotion.setDiscountType(Promotion.DiscountType.FIXED_AMOUNT);
+        promotion.setDiscountValue(new BigDecimal("10.00"));
+        promotion.setValidFrom(LocalDateTime.now().minusDays(1));
+        promotion.setValidTo(LocalDateTime.now().plusDays(1));
+        entityManager.persist(promotion);
+
+        Cart cart = new Cart();
+        cart.setSessionId("session-123");
+        cart.setUserId("user-123");
+        cart.setAppliedPromotion(promotion);
+        for (int i = 1; i <= 5; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setBasePrice(new BigDecimal("10.00"));
+            product.setStockQuantity(100);
+            product.setImageUrls(List.of("https://example.com/" + i + ".png"));
+            entityManager.persist(product);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(i);
+            item.setUnitPrice(product.getBasePrice());
+            item.setTotalPrice(product.getBasePrice().multiply(BigDecimal.valueOf(i)));
+            cart.getItems().add(item);
+        }
+        entityManager.persist(cart);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load cart, items, products and promotion by session in one query")
+    void shouldLoadCartBySessionInOneQuery() {
+        // When
+        Cart cart = cartRepository.findBySessionId("session-123").orElseThrow();
+
+        // Then
+        assertThat(cart.getItems()).hasSize(5);
+        assertThat(cart.getItems()).extracting(item -> item.getProduct().getName())
+            .containsExactlyInAnyOrder("Product 1", "Product 2", "Product 3", "Product 4", "Product 5");
+        assertThat(cart.getAppliedPromotion().getCode()).isEqualTo("TEN");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load cart by user in one query")
+    void shouldLoadCartByUserInOneQuery() {
+        // When
+        Cart cart = cartRepository.findByUserId("user-123").orElseThrow();
+
+        // Then
+        assertThat(cart.getItems()).extracting(item -> item.getProduct().getSku()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load product images of all cart items in one batch")
+    void shouldBatchLoadProductImages() {
+        // Given
+        Cart cart = cartRepository.findBySessionId("session-123").orElseThrow();
+
+        // When
+        long imageCount = cart.getItems().stream()
+            .mapToLong(item -> item.getProduct().getImageUrls().size())
+            .sum();
+
+        // Then
+        assertThat(imageCount).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should project cart lines and totals in one query")
+    void shouldProjectCartViewInOneQuery() {
+        // When
+        List<CartViewRow> rows = cartRepository.findViewBySessionId("session-123");
+        CartView view = CartView.of(rows);
+
+        // Then
+        assertThat(view.sessionId()).isEqualTo("session-123");
+        assertThat(view.promotionCode()).isEqualTo("TEN");
+        assertThat(view.items()).extracting(line -> line.sku())
+            .containsExactly("SKU-1", "SKU-2", "SKU-3", "SKU-4", "SKU-5");
+        assertThat(view.items().get(2).quantity()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should project empty cart as a single row without lines")
+    void shouldProjectEmptyCart() {
+        // Given
+        Cart empty = new Cart();
+        empty.setSessionId("empty-session");
+        entityManager.persistAndFlush(empty);
+
+        // When
+        CartView view = CartView.of(cartRepository.findViewBySessionId("empty-session"));
+
+        // Then
+        assertThat(view.id()).isEqualTo(empty.getId());
+        assertThat(view.items()).isEmpty();
+        assertThat(view.promotionCode()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should delete abandoned carts together with their items")
+    void shouldDeleteAbandonedCartsWithItems() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+
+        // When
+        int items = cartRepository.deleteItemsOfAbandonedCarts(cutoff);
+        int carts = cartRepository.deleteAbandonedCarts(cutoff);
+
+        // Then
+        assertThat(items).isEqualTo(5);
+        assertThat(carts).isEqualTo(1);
+        assertThat(cartRepository.findBySessionId("session-123")).isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package com.shoppingcart.multitenant.repository;
+
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
+import com.shoppingcart.multitenant.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("Price Repository Tests")
+class PriceRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private PriceBookRepository priceBookRepository;
+
+    private Product product;
+
+    private PriceBook summer;
+
+    private PriceBook autumn;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setName("Mouse");
+        product.setSku("MOUSE-1");
+        product.setBasePrice(new BigDecimal("20.00"));
+        product.setStockQuantity(10);
+        entityManager.persist(product);
+
+        summer = book("Summer", PriceBook.Status.ACTIVE);
+        autumn = book("Autumn", PriceBook.Status.STAGED);
+        price(null, "18.00", "VIP");
+        price(summer.getId(), "17.00", null);
+        price(autumn.getId(), "15.00", null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should resolve the prices of the active book only")
+    void shouldIgnorePricesOfInactiveBooks() {
+        // When
+        List<Price> prices = priceRepository.findByProductAndActiveTrue(product);
+
+        // Then
+        assertThat(prices).extracting(Price::getPrice).containsExactly(new BigDecimal("17.00"));
+        assertThat(priceRepository.findEffectivePrice(product, "RETAIL", 1, LocalDateTime.now()))
+            .get().extracting(Price::getPrice).isEqualTo(new BigDecimal("17.00"));
+    }
+
+    @Test
+    @DisplayName("Should switch to the prices of a newly activated book")
+    void shouldSwitchBooks() {
+        // When
+        int retired = priceBookRepository.retireActiveExcept(autumn.getId());
+        PriceBook activated = priceBookRepository.findById(autumn.getId()).orElseThrow();
+        activated.setStatus(PriceBook.Status.ACTIVE);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertThat(retired).isEqualTo(1);
+        assertThat(priceBookRepository.findById(summer.getId()).orElseThrow().getStatus())
+            .isEqualTo(PriceBook.Status.RETIRED);
+        assertThat(priceRepository.findByProductInAndActiveTrue(List.of(product))).extracting(Price::getPrice)
+            .containsExactly(new BigDecimal("15.00"));
+        assertThat(priceRepository.deleteByPriceBookId(summer.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should resolve prices outside any book while no book is active")
+    void shouldUseUnbookedPricesWithoutActiveBook() {
+        // When
+        priceBookRepository.retireActiveExcept(autumn.getId());
+        entityManager.clear();
+
+        // Then
+        assertThat(priceRepository.findByProductAndActiveTrue(product)).extracting(Price::getPrice)
+            .containsExactly(new BigDecimal("18.00"));
+        assertThat(priceBookRepository.findAllForUpdate()).extracting(PriceBook::getName)
+            .containsExactly("Summer", "Autumn");
+    }
+
+    private PriceBook book(String name, PriceBook.Status status) {
+        PriceBook book = new PriceBook();
+        book.setName(name);
+        book.setStatus(status);
+        return entityManager.persist(book);
+    }
+
+    private void price(Long priceBookId, String amount, String customerGroup) {
+        Price price = new Price();
+        price.setProduct(product);
+        price.setPrice(new BigDecimal(amount));
+        price.setCustomerGroup(customerGroup);
+        price.setPriceBookId(priceBookId);
+        entityManager.persist(price);
+    }
+}
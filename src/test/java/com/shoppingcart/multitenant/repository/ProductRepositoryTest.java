@@ -0,0 +1,121 @@
+package com.shoppingcart.multitenant.repository;
+
+import com.shoppingcart.multitenant.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("Product Repository Tests")
+class ProductRepositoryTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Products 1 and 2 share an updatedAt, so the id has to break the tie.
+        int[] minutes = {5, 5, 1, 3, 2};
+        for (int i = 0; i < minutes.length; i++) {
+            Product product = new Product();
+            product.setName("Product " + (i + 1));
+            product.setSku("SKU-" + (i + 1));
+            product.setBasePrice(new BigDecimal("10.00"));
+            product.setStockQuantity(i);
+            product.setUpdatedAt(BASE_TIME.plusMinutes(minutes[i]));
+            ids.add(entityManager.persist(product).getId());
+        }
+        Product inactive = new Product();
+        inactive.setName("Inactive");
+        inactive.setSku("SKU-X");
+        inactive.setBasePrice(new BigDecimal("10.00"));
+        inactive.setStockQuantity(1);
+        inactive.setActive(false);
+        entityManager.persist(inactive);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should page active products by id after a key")
+    void shouldSeekById() {
+        // When
+        List<Product> first = productRepository.findActiveAfterId(0L, PageRequest.of(0, 2));
+        List<Product> second = productRepository.findActiveAfterId(first.get(1).getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(first).extracting(Product::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(second).extracting(Product::getId).containsExactly(ids.get(2), ids.get(3));
+    }
+
+    @Test
+    @DisplayName("Should page active products by updatedAt with id as tie-breaker")
+    void shouldSeekByUpdatedAt() {
+        // When
+        List<Product> first = productRepository.findByActiveTrueOrderByUpdatedAtAscIdAsc(PageRequest.of(0, 4));
+        Product last = first.get(3);
+        List<Product> rest = productRepository.findActiveUpdatedAfter(last.getUpdatedAt(), last.getId(),
+            PageRequest.of(0, 4));
+
+        // Then
+        assertThat(first).extracting(Product::getSku).containsExactly("SKU-3", "SKU-5", "SKU-4", "SKU-1");
+        assertThat(rest).extracting(Product::getSku).containsExactly("SKU-2");
+    }
+
+    @Test
+    @DisplayName("Should slice active products without counting them")
+    void shouldSliceWithoutCount() {
+        // When
+        Slice<Product> slice = productRepository.findSliceByActiveTrue(PageRequest.of(1, 2));
+
+        // Then
+        assertThat(slice.getContent()).hasSize(2);
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stream in-stock products in id order")
+    void shouldStreamInStockProducts() {
+        // When
+        List<Long> streamed;
+        try (Stream<Product> products = productRepository.streamInStockProducts()) {
+            streamed = products.map(Product::getId).toList();
+        }
+
+        // Then
+        assertThat(streamed).containsExactlyElementsOf(ids.subList(1, 5));
+    }
+
+    @Test
+    @DisplayName("Should resume streaming active products after the last id seen")
+    void shouldStreamActiveProductsAfterId() {
+        // When
+        List<Long> streamed;
+        try (Stream<Product> products = productRepository.streamActiveProductsAfter(ids.get(2))) {
+            streamed = products.map(Product::getId).toList();
+        }
+
+        // Then
+        assertThat(streamed).containsExactly(ids.get(3), ids.get(4));
+    }
+}
@@ -0,0 +1,110 @@
+package com.shoppingcart.multitenant.repository;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.shoppingcart.multitenant.config.TenantJCacheRegionFactory",
+    "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+    "spring.jpa.properties.hibernate.javax.cache.uri=hibernate-cache.conf",
+    "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        productId = inTransaction(entityManager -> {
+            Product product = new Product();
+            product.setName("Cached Product");
+            product.setSku("CACHED-" + System.nanoTime());
+            product.setBasePrice(new BigDecimal("10.00"));
+            product.setStockQuantity(5);
+            product.setImageUrls(List.of("cached.png"));
+            entityManager.persist(product);
+            return product.getId();
+        });
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve a product and its images from the cache in a later transaction")
+    void shouldServeProductFromCache() {
+        // Given
+        inTransaction(entityManager -> entityManager.find(Product.class, productId).getImageUrls().size());
+        long queries = statistics.getPrepareStatementCount();
+
+        // When
+        List<String> imageUrls = inTransaction(entityManager ->
+            List.copyOf(entityManager.find(Product.class, productId).getImageUrls()));
+
+        // Then
+        assertThat(imageUrls).containsExactly("cached.png");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(queries);
+    }
+
+    @Test
+    @DisplayName("Should not serve one tenant's cached product to another tenant")
+    void shouldKeepTenantsApart() {
+        // Given
+        inTransaction(entityManager -> entityManager.find(Product.class, productId));
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+        inTransaction(entityManager -> entityManager.find(Product.class, productId));
+
+        // Then
+        assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(2);
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.shoppingcart.multitenant.search;
+
+import com.shoppingcart.multitenant.config.TenantAwareExecutor;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductTextRow;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Search Index Tests")
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private TenantAwareExecutor executor = new TenantAwareExecutor(Runnable::run);
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    private Map<Long, Product> catalog;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        List<Product> products = List.of(
+            product(1L, "Wireless Mouse", "Accessories", "Ergonomic mouse with a long battery life"),
+            product(2L, "Gaming Laptop", "Electronics", "Fast laptop with a wireless keyboard"),
+            product(3L, "Laptop Stand", "Accessories", "Aluminium stand for any laptop"),
+            product(4L, "Wireless Keyboard", "Accessories", "Quiet keyboard"));
+        catalog = products.stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+        lenient().when(productRepository.streamActiveProductText()).thenAnswer(invocation -> catalog.values().stream()
+            .filter(product -> product.getId() <= 4L)
+            .map(product -> new ProductTextRow(product.getId(), product.getName(), product.getSku(),
+                product.getBrand(), product.getCategory(), product.getDescription())));
+        lenient().when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Product> found = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                found.add(catalog.get(id));
+            }
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches")
+    void shouldRankNameMatchesFirst() {
+        // When
+        Page<Product> result = searchIndex.search("wireless", PageRequest.of(0, 10)).orElseThrow();
+
+        // Then
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting(Product::getId).containsExactlyInAnyOrder(1L, 4L, 2L);
+        assertThat(result.getContent().get(2).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should require every term and match the last one as a prefix")
+    void shouldMatchAllTermsWithPrefix() {
+        // When
+        Page<Product> result = searchIndex.search("laptop acc", PageRequest.of(0, 10)).orElseThrow();
+
+        // Then
+        assertThat(result.getContent()).extracting(Product::getId).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should load only the requested page")
+    void shouldPaginateRankedHits() {
+        // When
+        Page<Product> result = searchIndex.search("laptop", PageRequest.of(1, 1)).orElseThrow();
+
+        // Then
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).hasSize(1);
+        verify(productRepository).findAllById(List.of(result.getContent().get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("Should apply product writes to a built index")
+    void shouldApplyWrites() {
+        // Given
+        searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow();
+        Product trackball = product(5L, "Trackball Mouse", "Accessories", null);
+        catalog.put(5L, trackball);
+
+        // When
+        searchIndex.index(trackball);
+        searchIndex.remove(1L);
+        Page<Product> result = searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow();
+
+        // Then
+        assertThat(result.getContent()).extracting(Product::getId).containsExactly(5L);
+        verify(productRepository, times(1)).streamActiveProductText();
+    }
+
+    @Test
+    @DisplayName("Should keep tenants' indexes apart")
+    void shouldPartitionByTenant() {
+        // Given
+        searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow();
+        searchIndex.remove(1L);
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+        Page<Product> result = searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow();
+
+        // Then
+        assertThat(result.getContent()).extracting(Product::getId).containsExactly(1L);
+        verify(productRepository, times(2)).streamActiveProductText();
+    }
+
+    @Test
+    @DisplayName("Should build in the background, keep serving the old index and replay writes made meanwhile")
+    void shouldRebuildInBackground() {
+        // Given
+        List<Runnable> builds = new ArrayList<>();
+        ReflectionTestUtils.setField(searchIndex, "executor", new TenantAwareExecutor(builds::add));
+        assertThat(searchIndex.search("mouse", PageRequest.of(0, 10))).isEmpty();
+        builds.remove(0).run();
+
+        // When
+        searchIndex.invalidateAll();
+        Product trackball = product(5L, "Trackball Mouse", "Accessories", null);
+        catalog.put(5L, trackball);
+        searchIndex.index(trackball);
+
+        // Then
+        assertThat(builds).hasSize(1);
+        assertThat(searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow().getContent())
+            .extracting(Product::getId).containsExactlyInAnyOrder(1L, 5L);
+
+        // When
+        builds.remove(0).run();
+
+        // Then
+        assertThat(searchIndex.search("mouse", PageRequest.of(0, 10)).orElseThrow().getContent())
+            .extracting(Product::getId).containsExactlyInAnyOrder(1L, 5L);
+        verify(productRepository, times(2)).streamActiveProductText();
+    }
+
+    private Product product(Long id, String name, String category, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setDescription(description);
+        product.setSku("SKU-" + id);
+        product.setBasePrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1);
+        return product;
+    }
+}
@@ -0,0 +1,207 @@
+package com.shoppingcart.multitenant.search;
+
+import com.shoppingcart.multitenant.config.TenantAwareExecutor;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductSuggestion;
+import com.shoppingcart.multitenant.dto.ProductTextRow;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Suggestion Index Tests")
+class ProductSuggestionIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private TenantAwareExecutor executor = new TenantAwareExecutor(Runnable::run);
+
+    @InjectMocks
+    private ProductSuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        List<Product> products = List.of(
+            product(1L, "Wireless Mouse", "Accessories", "Logi"),
+            product(2L, "Gaming Laptop", "Electronics", "Acme"),
+            product(3L, "Laptop Stand", "Accessories", "Acme"),
+            product(4L, "Wireless Keyboard", "Accessories", "Logi"));
+        lenient().when(productRepository.streamActiveProductText())
+            .thenAnswer(invocation -> products.stream().map(this::row));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should suggest entries with a word starting with the prefix, most common first")
+    void shouldSuggestByWordPrefix() {
+        // When
+        List<ProductSuggestion> result = suggestionIndex.suggest("Ac", 10);
+
+        // Then
+        assertThat(result).containsExactly(
+            new ProductSuggestion("Accessories", ProductSuggestion.Type.CATEGORY, 3),
+            new ProductSuggestion("Acme", ProductSuggestion.Type.BRAND, 2));
+    }
+
+    @Test
+    @DisplayName("Should match any word of a name and cap the result at the limit")
+    void shouldMatchInnerWordsWithLimit() {
+        // When
+        List<ProductSuggestion> laptops = suggestionIndex.suggest("lapt", 10);
+        List<ProductSuggestion> first = suggestionIndex.suggest("lapt", 1);
+
+        // Then
+        assertThat(laptops).extracting(ProductSuggestion::text)
+            .containsExactly("Laptop Stand", "Gaming Laptop");
+        assertThat(first).extracting(ProductSuggestion::text).containsExactly("Laptop Stand");
+        assertThat(suggestionIndex.suggest("sku-3", 10)).extracting(ProductSuggestion::type)
+            .containsExactly(ProductSuggestion.Type.SKU);
+    }
+
+    @Test
+    @DisplayName("Should update counts and drop suggestions when products are deactivated")
+    void shouldApplyWrites() {
+        // Given
+        suggestionIndex.suggest("wireless", 10);
+        Product trackball = product(5L, "Wireless Trackball", "Accessories", "Logi");
+
+        // When
+        suggestionIndex.index(trackball);
+        suggestionIndex.remove(1L);
+        trackball.setActive(false);
+        suggestionIndex.index(product(4L, "Wireless Keyboard", "Accessories", "Keyco"));
+
+        // Then
+        assertThat(suggestionIndex.suggest("wireless", 10)).extracting(ProductSuggestion::text)
+            .containsExactly("Wireless Keyboard", "Wireless Trackball");
+        assertThat(suggestionIndex.suggest("logi", 10))
+            .containsExactly(new ProductSuggestion("Logi", ProductSuggestion.Type.BRAND, 1));
+        assertThat(suggestionIndex.suggest("mouse", 10)).isEmpty();
+
+        // When
+        suggestionIndex.index(trackball);
+
+        // Then
+        assertThat(suggestionIndex.suggest("logi", 10)).isEmpty();
+        assertThat(suggestionIndex.suggest("wireless", 10)).extracting(ProductSuggestion::text)
+            .containsExactly("Wireless Keyboard");
+        verify(productRepository, times(1)).streamActiveProductText();
+    }
+
+    @Test
+    @DisplayName("Should keep tenants' suggestions apart")
+    void shouldPartitionByTenant() {
+        // Given
+        suggestionIndex.suggest("mouse", 10);
+        suggestionIndex.remove(1L);
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+        List<ProductSuggestion> result = suggestionIndex.suggest("mouse", 10);
+
+        // Then
+        assertThat(result).extracting(ProductSuggestion::text).containsExactly("Wireless Mouse");
+        verify(productRepository, times(2)).streamActiveProductText();
+    }
+
+    @Test
+    @DisplayName("Should rank a bulk build like the same products added one by one")
+    void shouldBuildLikeIncrementalPuts() {
+        // Given
+        String[] words = {"wireless", "mouse", "laptop", "stand", "keyboard", "gaming", "usb", "hub"};
+        Map<Long, List<ProductSuggestionIndex.SuggestionKey>> productKeys = new HashMap<>();
+        ProductSuggestionIndex.TenantTrie incremental = new ProductSuggestionIndex.TenantTrie(3);
+        LongStream.range(0, 500).forEach(id -> {
+            String name = words[(int) (id % words.length)] + " " + words[(int) (id * 7 % words.length)];
+            List<ProductSuggestionIndex.SuggestionKey> keys = List.of(
+                new ProductSuggestionIndex.SuggestionKey(name, ProductSuggestion.Type.NAME),
+                new ProductSuggestionIndex.SuggestionKey("Brand " + id % 13, ProductSuggestion.Type.BRAND));
+            productKeys.put(id, keys);
+            incremental.put(id, keys);
+        });
+
+        // When
+        ProductSuggestionIndex.TenantTrie bulk = new ProductSuggestionIndex.TenantTrie(3, productKeys);
+
+        // Then
+        for (String prefix : List.of("w", "mo", "mouse w", "br", "brand 1", "u", "x")) {
+            assertThat(bulk.suggest(prefix, 3)).as(prefix).isEqualTo(incremental.suggest(prefix, 3));
+        }
+        assertThat(bulk.suggest("brand 12", 3))
+            .containsExactly(new ProductSuggestion("Brand 12", ProductSuggestion.Type.BRAND, 38));
+    }
+
+    @Test
+    @DisplayName("Should suggest nothing until the first build finishes and keep the old trie during a rebuild")
+    void shouldRebuildInBackground() {
+        // Given
+        List<Runnable> builds = new ArrayList<>();
+        ReflectionTestUtils.setField(suggestionIndex, "executor", new TenantAwareExecutor(builds::add));
+        assertThat(suggestionIndex.suggest("mouse", 10)).isEmpty();
+        builds.remove(0).run();
+
+        // When
+        suggestionIndex.invalidateAll();
+        suggestionIndex.index(product(5L, "Wireless Trackball", "Accessories", "Logi"));
+
+        // Then
+        assertThat(builds).hasSize(1);
+        assertThat(suggestionIndex.suggest("wireless t", 10)).extracting(ProductSuggestion::text)
+            .containsExactly("Wireless Trackball");
+
+        // When
+        builds.remove(0).run();
+
+        // Then
+        assertThat(suggestionIndex.suggest("wireless", 10)).extracting(ProductSuggestion::text)
+            .containsExactly("Wireless Mouse", "Wireless Keyboard", "Wireless Trackball");
+    }
+
+    private ProductTextRow row(Product product) {
+        return new ProductTextRow(product.getId(), product.getName(), product.getSku(), product.getBrand(),
+            product.getCategory(), product.getDescription());
+    }
+
+    private Product product(Long id, String name, String category, String brand) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setSku("SKU-" + id);
+        product.setBasePrice(new BigDecimal("10.00"));
+        product.setStockQuantity(1);
+        return product;
+    }
+}
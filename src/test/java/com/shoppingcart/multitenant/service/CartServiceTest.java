@@ -1,5 +1,7 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.dto.CartView;
+import com.shoppingcart.multitenant.dto.CartViewRow;
 import com.shoppingcart.multitenant.model.Cart;
 import com.shoppingcart.multitenant.model.CartItem;
 import com.shoppingcart.multitenant.model.Product;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -81,6 +85,8 @@ class CartServiceTest {
         testPromotion.setCode("TEST10");
         testPromotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
         testPromotion.setDiscountValue(new BigDecimal("10"));
+        testPromotion.setValidFrom(LocalDateTime.now().minusDays(1));
+        testPromotion.setValidTo(LocalDateTime.now().plusDays(30));
         testPromotion.setActive(true);
     }
 
@@ -122,6 +128,49 @@ class CartServiceTest {
         verify(cartRepository).save(any(Cart.class));
     }
 
+    @Test
+    @DisplayName("Should build cart view from projection rows")
+    void shouldGetCartViewFromProjection() {
+        // Given
+        String sessionId = "session123";
+        when(cartRepository.findViewBySessionId(sessionId)).thenReturn(List.of(
+            new CartViewRow(1L, sessionId, null, "TEST10", new BigDecimal("150.00"), new BigDecimal("15.00"),
+                new BigDecimal("135.00"), null, 1L, "Test Product", "SKU-1", new BigDecimal("50.00"), 3,
+                new BigDecimal("150.00"))));
+
+        // When
+        CartView result = cartService.getCartViewBySessionId(sessionId);
+
+        // Then
+        assertThat(result.promotionCode()).isEqualTo("TEST10");
+        assertThat(result.totalAmount()).isEqualByComparingTo("135.00");
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).productName()).isEqualTo("Test Product");
+        verify(cartRepository, never()).findBySessionId(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create cart when view finds no cart for session")
+    void shouldCreateCartWhenViewFindsNone() {
+        // Given
+        String sessionId = "new_session";
+        Cart newCart = new Cart();
+        newCart.setSessionId(sessionId);
+
+        when(cartRepository.findViewBySessionId(sessionId)).thenReturn(List.of());
+        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.empty());
+        when(cartRepository.save(any(Cart.class))).thenReturn(newCart);
+        when(tenantService.getCurrentTenant()).thenReturn("tenant1");
+
+        // When
+        CartView result = cartService.getCartViewBySessionId(sessionId);
+
+        // Then
+        assertThat(result.sessionId()).isEqualTo(sessionId);
+        assertThat(result.items()).isEmpty();
+        verify(cartRepository).save(any(Cart.class));
+    }
+
     @Test
     @DisplayName("Should add new item to empty cart")
     void shouldAddNewItemToEmptyCart() {
@@ -184,7 +233,6 @@ class CartServiceTest {
         Integer quantity = 1;
         testProduct.setActive(false);
         
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(testCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
@@ -203,7 +251,6 @@ class CartServiceTest {
         Integer quantity = 150; // More than stock of 100
         testProduct.setStockQuantity(100);
         
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(testCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
@@ -298,8 +345,9 @@ class CartServiceTest {
         testCart.setSubtotal(subtotal);
         
         when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(testCart));
-        when(promotionService.getPromotionByCode(promotionCode)).thenReturn(Optional.of(testPromotion));
-        when(promotionService.calculateDiscount(testPromotion, subtotal)).thenReturn(discount);
+        when(promotionService.getCompiledPromotion(promotionCode))
+            .thenReturn(Optional.of(CompiledPromotion.compile(testPromotion)));
+        when(promotionService.getPromotionReference(1L)).thenReturn(testPromotion);
         when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
@@ -320,8 +368,7 @@ class CartServiceTest {
         String sessionId = "session123";
         String invalidCode = "INVALID";
         
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(testCart));
-        when(promotionService.getPromotionByCode(invalidCode)).thenReturn(Optional.empty());
+        when(promotionService.getCompiledPromotion(invalidCode)).thenReturn(Optional.empty());
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
         // When & Then
@@ -341,14 +388,16 @@ class CartServiceTest {
         testCart.setSubtotal(subtotal);
         
         when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(testCart));
-        when(promotionService.getPromotionByCode(promotionCode)).thenReturn(Optional.of(testPromotion));
-        when(promotionService.calculateDiscount(testPromotion, subtotal)).thenReturn(BigDecimal.ZERO);
+        testPromotion.setMinOrderAmount(new BigDecimal("150.00"));
+        when(promotionService.getCompiledPromotion(promotionCode))
+            .thenReturn(Optional.of(CompiledPromotion.compile(testPromotion)));
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
         // When & Then
         assertThatThrownBy(() -> cartService.applyPromotion(sessionId, promotionCode))
             .isInstanceOf(RuntimeException.class)
             .hasMessage("Promotion is not applicable to this cart");
+        verify(promotionService, never()).getPromotionReference(any());
     }
 
     @Test
@@ -413,6 +462,8 @@ class CartServiceTest {
         cartService.cleanupAbandonedCarts(daysOld);
 
         // Then
-        verify(cartRepository).deleteAbandonedCarts(any(LocalDateTime.class));
+        InOrder inOrder = inOrder(cartRepository);
+        inOrder.verify(cartRepository).deleteItemsOfAbandonedCarts(any(LocalDateTime.class));
+        inOrder.verify(cartRepository).deleteAbandonedCarts(any(LocalDateTime.class));
     }
 }
\ No newline at end of file
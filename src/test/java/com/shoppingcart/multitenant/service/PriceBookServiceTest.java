@@ -0,0 +1,206 @@
+package com.shoppingcart.multitenant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.PriceBookImportReport;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceBookRepository;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Price Book Service Tests")
+class PriceBookServiceTest {
+
+    @Mock
+    private PriceBookRepository priceBookRepository;
+
+    @Mock
+    private PriceRepository priceRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PriceIndex priceIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private PriceBookService priceBookService;
+
+    private final List<Price> saved = new ArrayList<>();
+
+    private PriceBook book;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        ReflectionTestUtils.setField(priceBookService, "batchSize", 2);
+        book = new PriceBook();
+        book.setId(3L);
+        lenient().when(priceBookRepository.save(any())).thenAnswer(invocation -> {
+            PriceBook saved = invocation.getArgument(0);
+            saved.setId(3L);
+            book = saved;
+            return saved;
+        });
+        lenient().when(priceBookRepository.findById(3L)).thenAnswer(invocation -> Optional.of(book));
+        lenient().when(priceRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<Price>>getArgument(0).forEach(saved::add);
+            return saved;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should stage valid prices in the new book and report invalid rows and unknown SKUs")
+    void shouldStageCsvPrices() {
+        // Given
+        Product mouse = product(1L, "MOUSE-1");
+        Product keyboard = product(2L, "KB-1");
+        when(productRepository.findBySkuIn(any())).thenAnswer(invocation -> {
+            Collection<String> skus = invocation.getArgument(0);
+            return List.of(mouse, keyboard).stream().filter(product -> skus.contains(product.getSku())).toList();
+        });
+        String csv = """
+            sku,price,customerGroup,minQuantity,validFrom
+            MOUSE-1,17.50,,,
+            MOUSE-1,15.00,VIP,5,2026-11-01T00:00:00
+            KB-1,-1,,,
+            GONE-1,9.99,,,
+            KB-1,27.00,,,
+            """;
+
+        // When
+        PriceBookImportReport report = priceBookService.importPriceBook(stream(csv), PriceBookService.Format.CSV,
+            "Autumn", false);
+
+        // Then
+        assertThat(report.priceBook().getStatus()).isEqualTo(PriceBook.Status.STAGED);
+        assertThat(report.priceBook().getPriceCount()).isEqualTo(3L);
+        assertThat(report.rows()).isEqualTo(5);
+        assertThat(report.staged()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.errors()).extracting(PriceBookImportReport.RowError::line).containsExactly(4L, 5L);
+        assertThat(report.errors().get(0).message()).isEqualTo("price: must be greater than or equal to 0");
+
+        assertThat(saved).extracting(Price::getPrice)
+            .containsExactly(new BigDecimal("17.50"), new BigDecimal("15.00"), new BigDecimal("27.00"));
+        assertThat(saved).allMatch(price -> price.getPriceBookId().equals(3L));
+        assertThat(saved.get(1).getCustomerGroup()).isEqualTo("VIP");
+        assertThat(saved.get(1).getMinQuantity()).isEqualTo(5);
+        assertThat(saved.get(1).getValidFrom()).isEqualTo(LocalDateTime.of(2026, 11, 1, 0, 0));
+        verify(entityManager, times(2)).flush();
+        verify(priceBookRepository, never()).retireActiveExcept(any());
+        verifyNoInteractions(priceIndex);
+    }
+
+    @Test
+    @DisplayName("Should activate the imported book and retire the previous one")
+    void shouldActivateAfterImport() {
+        // Given
+        when(productRepository.findBySkuIn(any())).thenReturn(List.of(product(1L, "MOUSE-1")));
+        when(priceBookRepository.retireActiveExcept(3L)).thenReturn(1);
+
+        // When
+        PriceBookImportReport report = priceBookService.importPriceBook(
+            stream("{\"sku\":\"MOUSE-1\",\"price\":12.00,\"validTo\":\"2026-12-31T23:59:59\"}\n"),
+            PriceBookService.Format.NDJSON, "Winter", true);
+
+        // Then
+        assertThat(report.priceBook().getStatus()).isEqualTo(PriceBook.Status.ACTIVE);
+        assertThat(report.priceBook().getActivatedAt()).isNotNull();
+        assertThat(saved).singleElement()
+            .satisfies(price -> assertThat(price.getValidTo()).isEqualTo(LocalDateTime.of(2026, 12, 31, 23, 59, 59)));
+        InOrder inOrder = inOrder(priceBookRepository);
+        inOrder.verify(priceBookRepository).findAllForUpdate();
+        inOrder.verify(priceBookRepository).retireActiveExcept(3L);
+        verify(priceIndex).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Should fail the book on an unknown CSV column and refuse to activate it")
+    void shouldFailOnUnknownColumn() {
+        // When & Then
+        assertThatThrownBy(() -> priceBookService.importPriceBook(stream("sku,colour\nKB-1,red\n"),
+                PriceBookService.Format.CSV, "Broken", true))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("colour");
+        assertThat(book.getStatus()).isEqualTo(PriceBook.Status.FAILED);
+
+        assertThatThrownBy(() -> priceBookService.activate(3L))
+            .isInstanceOf(IllegalStateException.class);
+        verify(priceBookRepository, never()).retireActiveExcept(any());
+        verifyNoInteractions(productRepository, priceIndex);
+    }
+
+    @Test
+    @DisplayName("Should not delete the active book")
+    void shouldNotDeleteActiveBook() {
+        // Given
+        book.setStatus(PriceBook.Status.ACTIVE);
+
+        // When & Then
+        assertThatThrownBy(() -> priceBookService.delete(3L))
+            .isInstanceOf(IllegalStateException.class);
+        verify(priceRepository, never()).deleteByPriceBookId(any());
+    }
+
+    private Product product(Long id, String sku) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku(sku);
+        return product;
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
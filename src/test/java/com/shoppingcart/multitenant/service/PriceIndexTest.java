@@ -0,0 +1,174 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.EffectivePrice;
+import com.shoppingcart.multitenant.dto.EffectivePriceRequest;
+import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceRepository;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Price Index Tests")
+class PriceIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PriceRepository priceRepository;
+
+    @InjectMocks
+    private PriceIndex priceIndex;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+
+        testProduct = new Product();
+        testProduct.setId(1L);
+        testProduct.setBasePrice(new BigDecimal("100.00"));
+
+        List<Price> prices = Arrays.asList(
+            price("90.00", null, 1, null),
+            price("85.00", null, 10, null),
+            price("80.00", "VIP", 5, null),
+            price("70.00", "VIP", 1, LocalDateTime.now().minusDays(1)));
+        lenient().when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        lenient().when(priceRepository.findByProductAndActiveTrue(testProduct)).thenReturn(prices);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should pick the highest matching quantity tier")
+    void shouldPickTheHighestMatchingQuantityTier() {
+        assertThat(priceIndex.getEffectivePrice(1L, null, 1)).isEqualTo(new BigDecimal("90.00"));
+        assertThat(priceIndex.getEffectivePrice(1L, "RETAIL", 12)).isEqualTo(new BigDecimal("85.00"));
+    }
+
+    @Test
+    @DisplayName("Should prefer customer group tiers and skip expired ones")
+    void shouldPreferCustomerGroupTiersAndSkipExpiredOnes() {
+        assertThat(priceIndex.getEffectivePrice(1L, "VIP", 5)).isEqualTo(new BigDecimal("80.00"));
+        assertThat(priceIndex.getEffectivePrice(1L, "VIP", 1)).isEqualTo(new BigDecimal("90.00"));
+        assertThat(priceIndex.getEffectivePrice(1L, "VIP", 12)).isEqualTo(new BigDecimal("80.00"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to base price when no tier matches")
+    void shouldFallBackToBasePriceWhenNoTierMatches() {
+        when(priceRepository.findByProductAndActiveTrue(testProduct)).thenReturn(List.of());
+
+        assertThat(priceIndex.getEffectivePrice(1L, null, 1)).isEqualTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups from memory")
+    void shouldAnswerRepeatedLookupsFromMemory() {
+        priceIndex.getEffectivePrice(1L, null, 1);
+        priceIndex.getEffectivePrice(1L, "VIP", 5);
+        priceIndex.getEffectivePrice(1L, null, 12);
+
+        verify(productRepository, times(1)).findById(1L);
+        verify(priceRepository, times(1)).findByProductAndActiveTrue(testProduct);
+    }
+
+    @Test
+    @DisplayName("Should reload product after invalidation")
+    void shouldReloadProductAfterInvalidation() {
+        // Given
+        priceIndex.getEffectivePrice(1L, null, 1);
+        when(priceRepository.findByProductAndActiveTrue(testProduct))
+            .thenReturn(List.of(price("75.00", null, 1, null)));
+
+        // When
+        priceIndex.invalidate(1L);
+
+        // Then
+        assertThat(priceIndex.getEffectivePrice(1L, null, 1)).isEqualTo(new BigDecimal("75.00"));
+    }
+
+    @Test
+    @DisplayName("Should keep tenants separate")
+    void shouldKeepTenantsSeparate() {
+        // Given
+        priceIndex.getEffectivePrice(1L, null, 1);
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+        priceIndex.getEffectivePrice(1L, null, 1);
+
+        // Then
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when product not found")
+    void shouldThrowExceptionWhenProductNotFound() {
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> priceIndex.getEffectivePrice(999L, null, 1))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Product not found with id: 999");
+    }
+
+    @Test
+    @DisplayName("Should price many products with set-based loads")
+    void shouldPriceManyProductsWithSetBasedLoads() {
+        // Given
+        Product other = new Product();
+        other.setId(2L);
+        other.setBasePrice(new BigDecimal("50.00"));
+        when(productRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(testProduct, other));
+        when(priceRepository.findByProductInAndActiveTrue(List.of(testProduct, other)))
+            .thenReturn(List.of(price("90.00", null, 1, null)));
+
+        // When
+        List<EffectivePrice> prices = priceIndex.getEffectivePrices(List.of(
+            new EffectivePriceRequest.Item(1L, 1),
+            new EffectivePriceRequest.Item(2L, 3),
+            new EffectivePriceRequest.Item(3L, 1)), null);
+
+        // Then
+        assertThat(prices).containsExactly(
+            new EffectivePrice(1L, 1, new BigDecimal("90.00")),
+            new EffectivePrice(2L, 3, new BigDecimal("50.00")));
+        assertThat(priceIndex.getEffectivePrice(2L, null, 1)).isEqualTo(new BigDecimal("50.00"));
+        verify(productRepository, never()).findById(any());
+    }
+
+    private Price price(String amount, String customerGroup, int minQuantity, LocalDateTime validTo) {
+        Price price = new Price();
+        price.setProduct(testProduct);
+        price.setPrice(new BigDecimal(amount));
+        price.setCustomerGroup(customerGroup);
+        price.setMinQuantity(minQuantity);
+        price.setValidTo(validTo);
+        return price;
+    }
+}
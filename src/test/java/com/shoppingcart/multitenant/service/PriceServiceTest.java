@@ -1,7 +1,9 @@
 package com.shoppingcart.multitenant.service;
 
 import com.shoppingcart.multitenant.model.Price;
+import com.shoppingcart.multitenant.model.PriceBook;
 import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.PriceBookRepository;
 import com.shoppingcart.multitenant.repository.PriceRepository;
 import com.shoppingcart.multitenant.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,9 +36,15 @@ class PriceServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private PriceBookRepository priceBookRepository;
+
     @Mock
     private TenantService tenantService;
 
+    @Mock
+    private PriceIndex priceIndex;
+
     @InjectMocks
     private PriceService priceService;
 
@@ -72,69 +80,20 @@ class PriceServiceTest {
     }
 
     @Test
-    @DisplayName("Should get effective price using base price when no special price exists")
-    void shouldGetEffectivePriceUsingBasePriceWhenNoSpecialPriceExists() {
-        // Given
-        Long productId = 1L;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
-        when(priceRepository.findEffectivePrice(any(), any(), any(), any()))
-            .thenReturn(Optional.empty());
-        when(tenantService.getCurrentTenant()).thenReturn("tenant1");
-
-        // When
-        BigDecimal effectivePrice = priceService.getEffectivePrice(productId, null, 1);
-
-        // Then
-        assertThat(effectivePrice).isEqualTo(new BigDecimal("100.00"));
-        verify(productRepository).findById(productId);
-        verify(priceRepository).findEffectivePrice(
-            eq(testProduct), eq(null), eq(1), any(LocalDateTime.class)
-        );
-    }
-
-    @Test
-    @DisplayName("Should get effective price from price rule when available")
-    void shouldGetEffectivePriceFromPriceRuleWhenAvailable() {
-        // Given
-        Long productId = 1L;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
-        when(priceRepository.findEffectivePrice(any(), any(), any(), any()))
-            .thenReturn(Optional.of(testPrice));
-        when(tenantService.getCurrentTenant()).thenReturn("tenant1");
-
-        // When
-        BigDecimal effectivePrice = priceService.getEffectivePrice(productId, null, 1);
-
-        // Then
-        assertThat(effectivePrice).isEqualTo(new BigDecimal("90.00"));
-        verify(productRepository).findById(productId);
-        verify(priceRepository).findEffectivePrice(
-            eq(testProduct), eq(null), eq(1), any(LocalDateTime.class)
-        );
-    }
-
-    @Test
-    @DisplayName("Should get effective price for VIP customer group")
-    void shouldGetEffectivePriceForVipCustomerGroup() {
+    @DisplayName("Should get effective price from price index")
+    void shouldGetEffectivePriceFromPriceIndex() {
         // Given
         Long productId = 1L;
-        String customerGroup = "VIP";
-        Integer quantity = 5;
-        
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
-        when(priceRepository.findEffectivePrice(any(), eq(customerGroup), eq(quantity), any()))
-            .thenReturn(Optional.of(specialPrice));
+        when(priceIndex.getEffectivePrice(productId, "VIP", 5)).thenReturn(new BigDecimal("80.00"));
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
         // When
-        BigDecimal effectivePrice = priceService.getEffectivePrice(productId, customerGroup, quantity);
+        BigDecimal effectivePrice = priceService.getEffectivePrice(productId, "VIP", 5);
 
         // Then
         assertThat(effectivePrice).isEqualTo(new BigDecimal("80.00"));
-        verify(productRepository).findById(productId);
-        verify(priceRepository).findEffectivePrice(
-            eq(testProduct), eq(customerGroup), eq(quantity), any(LocalDateTime.class)
-        );
+        verify(priceIndex).getEffectivePrice(productId, "VIP", 5);
+        verifyNoInteractions(productRepository, priceRepository);
     }
 
     @Test
@@ -142,16 +101,14 @@ class PriceServiceTest {
     void shouldThrowExceptionWhenProductNotFoundForPricing() {
         // Given
         Long productId = 999L;
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(priceIndex.getEffectivePrice(productId, null, 1))
+            .thenThrow(new RuntimeException("Product not found with id: " + productId));
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
         // When & Then
         assertThatThrownBy(() -> priceService.getEffectivePrice(productId, null, 1))
             .isInstanceOf(RuntimeException.class)
             .hasMessage("Product not found with id: " + productId);
-        
-        verify(productRepository).findById(productId);
-        verify(priceRepository, never()).findEffectivePrice(any(), any(), any(), any());
     }
 
     @Test
@@ -207,6 +164,7 @@ class PriceServiceTest {
         // Then
         assertThat(result).isEqualTo(testPrice);
         verify(priceRepository).save(testPrice);
+        verify(priceIndex).invalidate(1L);
     }
 
     @Test
@@ -232,6 +190,48 @@ class PriceServiceTest {
         assertThat(result.getActive()).isFalse();
         verify(priceRepository).findById(priceId);
         verify(priceRepository).save(any(Price.class));
+        verify(priceIndex).invalidate(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject writes to prices outside any book while a price book is active")
+    void shouldRejectUnbookedPriceWritesWhileBookIsActive() {
+        // Given
+        PriceBook activeBook = new PriceBook();
+        activeBook.setId(7L);
+        activeBook.setStatus(PriceBook.Status.ACTIVE);
+        when(priceBookRepository.findAllForUpdate()).thenReturn(List.of(activeBook));
+        when(priceRepository.findById(1L)).thenReturn(Optional.of(testPrice));
+        when(tenantService.getCurrentTenant()).thenReturn("tenant1");
+
+        // When & Then
+        assertThatThrownBy(() -> priceService.createPrice(specialPrice))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Price book 7 is active, so prices outside a price book do not apply");
+        assertThatThrownBy(() -> priceService.updatePrice(1L, new Price()))
+            .isInstanceOf(IllegalStateException.class);
+        verify(priceRepository, never()).save(any(Price.class));
+        verifyNoInteractions(priceIndex);
+    }
+
+    @Test
+    @DisplayName("Should update a price of the active book")
+    void shouldUpdatePriceOfActiveBook() {
+        // Given
+        testPrice.setPriceBookId(7L);
+        Price updateData = new Price();
+        updateData.setPrice(new BigDecimal("85.00"));
+        when(priceRepository.findById(1L)).thenReturn(Optional.of(testPrice));
+        when(priceRepository.save(testPrice)).thenReturn(testPrice);
+        when(tenantService.getCurrentTenant()).thenReturn("tenant1");
+
+        // When
+        Price result = priceService.updatePrice(1L, updateData);
+
+        // Then
+        assertThat(result.getPrice()).isEqualTo(new BigDecimal("85.00"));
+        verifyNoInteractions(priceBookRepository);
+        verify(priceIndex).invalidate(1L);
     }
 
     @Test
@@ -282,6 +282,7 @@ class PriceServiceTest {
         // Then
         verify(priceRepository).findById(priceId);
         verify(priceRepository).save(argThat(price -> !price.getActive()));
+        verify(priceIndex).invalidate(1L);
     }
 
     @Test
@@ -299,5 +300,6 @@ class PriceServiceTest {
         
         verify(priceRepository).findById(priceId);
         verify(priceRepository, never()).save(any(Price.class));
+        verify(priceIndex, never()).invalidate(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.metrics.TenantTagLimiter;
+import com.shoppingcart.multitenant.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Product Cache Tests")
+class ProductCacheTest {
+
+    private ProductCache productCache;
+
+    private Product testProduct;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        productCache = new ProductCache();
+        loads = new AtomicInteger();
+
+        testProduct = new Product();
+        testProduct.setId(1L);
+        testProduct.setName("Test Product");
+        testProduct.setSku("TEST-001");
+        testProduct.setBasePrice(new BigDecimal("99.99"));
+        testProduct.setStockQuantity(10);
+        testProduct.setCategory("Electronics");
+        testProduct.setBrand("TestBrand");
+        testProduct.setImageUrls(List.of("test.jpg"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should load a product once and serve later lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // When
+        Optional<Product> first = productCache.getById(1L, this::load);
+        Optional<Product> second = productCache.getById(1L, this::load);
+
+        // Then
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second).containsSame(first.orElseThrow());
+        assertThat(second.orElseThrow().getSku()).isEqualTo("TEST-001");
+        assertThat(second.orElseThrow()).isNotSameAs(testProduct);
+    }
+
+    @Test
+    @DisplayName("Should keep tenants' entries apart")
+    void shouldPartitionByTenant() {
+        // Given
+        productCache.getById(1L, this::load);
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+        Optional<Product> other = productCache.getById(1L, Optional::empty);
+
+        // Then
+        assertThat(other).isEmpty();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish cache metrics only for tenants with their own tag value")
+    void shouldPublishMetricsOnlyForTaggedTenants() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TenantTagLimiter limiter = new TenantTagLimiter(1, tenantId -> true);
+        registry.config().meterFilter(limiter);
+        ReflectionTestUtils.setField(productCache, "meterRegistry", registry);
+        ReflectionTestUtils.setField(productCache, "tenantTagLimiter", limiter);
+
+        // When
+        productCache.getById(1L, this::load);
+        TenantContext.setCurrentTenant("tenant2");
+        productCache.getById(1L, this::load);
+
+        // Then
+        assertThat(registry.find("cache.size").tag("tenant", "tenant1").gauge()).isNotNull();
+        assertThat(registry.find("cache.size").tag("tenant", TenantTagLimiter.OVERFLOW_TENANT).gauge()).isNull();
+        assertThat(registry.find("cache.size").tag("tenant", "tenant2").gauge()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should evict the id, SKU, category and brand entries of an invalidated product")
+    void shouldInvalidateEntriesOfProduct() {
+        // Given
+        productCache.getById(1L, this::load);
+        productCache.getBySku("TEST-001", this::load);
+        productCache.getByCategory("Electronics", this::loadList);
+        productCache.getByBrand("TestBrand", this::loadList);
+        productCache.getByCategory("Toys", this::loadList);
+        loads.set(0);
+
+        // When
+        productCache.invalidate(testProduct);
+        productCache.getById(1L, this::load);
+        productCache.getBySku("TEST-001", this::load);
+        productCache.getByCategory("Electronics", this::loadList);
+        productCache.getByBrand("TestBrand", this::loadList);
+        productCache.getByCategory("Toys", this::loadList);
+
+        // Then
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should cache missing products")
+    void shouldCacheMissingProducts() {
+        // When
+        productCache.getBySku("MISSING", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<Product> again = productCache.getBySku("MISSING", this::load);
+
+        // Then
+        assertThat(again).isEmpty();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should weigh products by their contents")
+    void shouldWeighProductsByContents() {
+        // Given
+        Product larger = ProductCache.copy(testProduct);
+        larger.setDescription("x".repeat(1000));
+
+        // When & Then
+        assertThat(ProductCache.weigh(larger)).isGreaterThan(ProductCache.weigh(testProduct) + 1000);
+        assertThat(ProductCache.weigh(List.of(testProduct, larger)))
+            .isGreaterThan(ProductCache.weigh(testProduct) + ProductCache.weigh(larger));
+    }
+
+    private Optional<Product> load() {
+        loads.incrementAndGet();
+        return Optional.of(testProduct);
+    }
+
+    private List<Product> loadList() {
+        loads.incrementAndGet();
+        return List.of(testProduct);
+    }
+}
@@ -0,0 +1,163 @@
+package com.shoppingcart.multitenant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.dto.ProductImportReport;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Import Service Tests")
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PriceIndex priceIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ProductImportService importService;
+
+    private final List<Product> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        lenient().when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<Product>>getArgument(0).forEach(saved::add);
+            return saved;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should insert new SKUs, update existing ones and report invalid rows")
+    void shouldUpsertCsvBySku() {
+        // Given
+        Product existing = new Product();
+        existing.setId(7L);
+        existing.setName("Old Mouse");
+        existing.setSku("MOUSE-1");
+        existing.setBasePrice(new BigDecimal("10.00"));
+        existing.setStockQuantity(1);
+        existing.setBrand("Logi");
+        when(productRepository.findBySkuIn(any())).thenAnswer(invocation ->
+            invocation.<Collection<String>>getArgument(0).contains("MOUSE-1") ? List.of(existing) : List.of());
+        String csv = """
+            sku,name,basePrice,stockQuantity,imageUrls,description
+            MOUSE-1,Wireless Mouse,19.99,5,a.png|b.png,"Quiet, ""silent"" clicks"
+            KB-1,Keyboard,abc,3,,
+            KB-2,,29.99,3,,
+            KB-3,Keyboard,39.99,4,,
+            STAND-1,Laptop Stand,24.50,8,,
+            """;
+
+        // When
+        ProductImportReport report = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        // Then
+        assertThat(report.status()).isEqualTo(ProductImportReport.Status.COMPLETED);
+        assertThat(report.rows()).isEqualTo(5);
+        assertThat(report.committed()).isEqualTo(5);
+        assertThat(report.inserted()).isEqualTo(2);
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ProductImportReport.RowError::row).containsExactly(2L, 3L);
+        assertThat(report.errors().get(1).message()).isEqualTo("name: must not be blank");
+
+        assertThat(existing.getName()).isEqualTo("Wireless Mouse");
+        assertThat(existing.getDescription()).isEqualTo("Quiet, \"silent\" clicks");
+        assertThat(existing.getImageUrls()).containsExactly("a.png", "b.png");
+        assertThat(existing.getBrand()).isEqualTo("Logi");
+        assertThat(saved).extracting(Product::getSku).containsExactly("KB-3", "STAND-1");
+        verify(productRepository, times(2)).findBySkuIn(any());
+        verify(entityManager, times(2)).flush();
+        verify(priceIndex).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON and keep the last row of a SKU repeated in a batch")
+    void shouldImportNdjson() {
+        // Given
+        when(productRepository.findBySkuIn(any())).thenReturn(List.of());
+        String ndjson = """
+            {"sku":"KB-1","name":"Keyboard","basePrice":29.99,"stockQuantity":3}
+            {"sku":"KB-1","name":"Keyboard v2","basePrice":31.99,"stockQuantity":2}
+            not json
+            """;
+
+        // When
+        ProductImportReport report = importService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        // Then
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(report.errors().get(0).message()).startsWith("Invalid JSON");
+        assertThat(saved).extracting(Product::getName).containsExactly("Keyboard v2");
+        ArgumentCaptor<Collection<String>> skus = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findBySkuIn(skus.capture());
+        assertThat(skus.getValue()).containsExactly("KB-1");
+    }
+
+    @Test
+    @DisplayName("Should fail the import on an unknown CSV column and keep the report")
+    void shouldRejectUnknownColumn() {
+        // When & Then
+        assertThatThrownBy(() -> importService.importProducts(stream("sku,colour\nKB-1,red\n"),
+                ProductImportService.Format.CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("colour");
+        assertThat(importService.getProgress().status()).isEqualTo(ProductImportReport.Status.FAILED);
+        verifyNoInteractions(productRepository);
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
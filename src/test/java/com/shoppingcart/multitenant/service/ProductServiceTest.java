@@ -1,5 +1,7 @@
 package com.shoppingcart.multitenant.service;
 
+import com.shoppingcart.multitenant.dto.ProductCursor;
+import com.shoppingcart.multitenant.dto.ProductCursorPage;
 import com.shoppingcart.multitenant.model.Product;
 import com.shoppingcart.multitenant.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +13,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +38,9 @@ class ProductServiceTest {
     @Mock
     private TenantService tenantService;
 
+    @Mock
+    private PriceIndex priceIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -219,6 +226,7 @@ class ProductServiceTest {
         assertThat(result.getStockQuantity()).isEqualTo(20);
         verify(productRepository).findById(productId);
         verify(productRepository).save(any(Product.class));
+        verify(priceIndex).invalidate(productId);
     }
 
     @Test
@@ -285,4 +293,37 @@ class ProductServiceTest {
         verify(productRepository).findById(productId);
         verify(productRepository, never()).save(any(Product.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a cursor that continues after the last product of a full page")
+    void shouldSeekWithCursor() {
+        // Given
+        Product second = new Product();
+        second.setId(2L);
+        second.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000));
+        Product third = new Product();
+        third.setId(3L);
+        when(productRepository.findByActiveTrueOrderByUpdatedAtAscIdAsc(PageRequest.of(0, 3)))
+            .thenReturn(List.of(testProduct, second, third));
+        when(productRepository.findActiveUpdatedAfter(second.getUpdatedAt(), 2L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(third));
+
+        // When
+        ProductCursorPage first = productService.seekActiveProducts(null, ProductCursor.Key.UPDATED_AT, 2);
+        ProductCursorPage next = productService.seekActiveProducts(first.nextCursor(), ProductCursor.Key.ID, 2);
+
+        // Then
+        assertThat(first.content()).containsExactly(testProduct, second);
+        assertThat(next.content()).containsExactly(third);
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor it did not issue")
+    void shouldRejectMalformedCursor() {
+        // When & Then
+        assertThatThrownBy(() -> productService.seekActiveProducts("not-a-cursor", ProductCursor.Key.ID, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,141 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Promotion Catalog Tests")
+class PromotionCatalogTest {
+
+    @Mock
+    private PromotionRepository promotionRepository;
+
+    @Mock
+    private PromotionUsageCounter usageCounter;
+
+    @InjectMocks
+    private PromotionCatalog promotionCatalog;
+
+    private Promotion percentagePromotion;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+
+        percentagePromotion = new Promotion();
+        percentagePromotion.setId(1L);
+        percentagePromotion.setCode("SAVE10");
+        percentagePromotion.setDiscountType(Promotion.DiscountType.PERCENTAGE);
+        percentagePromotion.setDiscountValue(new BigDecimal("10"));
+        percentagePromotion.setMaxDiscountAmount(new BigDecimal("50.00"));
+        percentagePromotion.setValidFrom(LocalDateTime.now().minusDays(1));
+        percentagePromotion.setValidTo(LocalDateTime.now().plusDays(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should evaluate compiled promotions by code and id")
+    void shouldEvaluateCompiledPromotionsByCodeAndId() {
+        // Given
+        when(promotionRepository.findByActiveTrue()).thenReturn(List.of(percentagePromotion));
+        LocalDateTime now = LocalDateTime.now();
+
+        // When & Then
+        assertThat(promotionCatalog.findByCode("SAVE10")).get()
+            .satisfies(promotion -> assertThat(promotion.discount(new BigDecimal("100.00"), now))
+                .isEqualTo(new BigDecimal("10.00")));
+        assertThat(promotionCatalog.findById(1L)).get()
+            .satisfies(promotion -> assertThat(promotion.discount(new BigDecimal("1000.00"), now))
+                .isEqualTo(new BigDecimal("50.00")));
+        assertThat(promotionCatalog.findByCode("UNKNOWN")).isEmpty();
+        verify(promotionRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild snapshot after invalidation")
+    void shouldRebuildSnapshotAfterInvalidation() {
+        // Given
+        when(promotionRepository.findByActiveTrue())
+            .thenReturn(List.of(percentagePromotion))
+            .thenReturn(List.of());
+        assertThat(promotionCatalog.findByCode("SAVE10")).isPresent();
+
+        // When
+        promotionCatalog.invalidate();
+
+        // Then
+        assertThat(promotionCatalog.findByCode("SAVE10")).isEmpty();
+        verify(promotionRepository, times(2)).findByActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep one snapshot per tenant")
+    void shouldKeepOneSnapshotPerTenant() {
+        // Given
+        when(promotionRepository.findByActiveTrue())
+            .thenReturn(List.of(percentagePromotion))
+            .thenReturn(List.of());
+        assertThat(promotionCatalog.findByCode("SAVE10")).isPresent();
+
+        // When
+        TenantContext.setCurrentTenant("tenant2");
+
+        // Then
+        assertThat(promotionCatalog.findByCode("SAVE10")).isEmpty();
+        TenantContext.setCurrentTenant("tenant1");
+        assertThat(promotionCatalog.findByCode("SAVE10")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should publish a snapshot built while another tenant is invalidated")
+    void shouldNotDiscardSnapshotOnOtherTenantsInvalidation() {
+        // Given
+        when(promotionRepository.findByActiveTrue()).thenAnswer(invocation -> {
+            TenantContext.runWithTenant("tenant2", promotionCatalog::invalidate);
+            return List.of(percentagePromotion);
+        });
+
+        // When
+        promotionCatalog.findByCode("SAVE10");
+        promotionCatalog.findByCode("SAVE10");
+
+        // Then
+        verify(promotionRepository, times(1)).findByActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop discounting once the usage counter reports the limit reached")
+    void shouldCheckLiveUsageOnEveryEvaluation() {
+        // Given
+        when(promotionRepository.findByActiveTrue()).thenReturn(List.of(percentagePromotion));
+        when(usageCounter.isExhausted("tenant1", percentagePromotion)).thenReturn(false, true);
+        BigDecimal orderAmount = new BigDecimal("100.00");
+
+        // When & Then
+        assertThat(promotionCatalog.findById(1L).orElseThrow().discount(orderAmount, LocalDateTime.now()))
+            .isEqualTo(new BigDecimal("10.00"));
+        assertThat(promotionCatalog.findById(1L).orElseThrow().discount(orderAmount, LocalDateTime.now()))
+            .isEqualTo(BigDecimal.ZERO);
+        verify(promotionRepository, times(1)).findByActiveTrue();
+    }
+}
@@ -31,6 +31,12 @@ class PromotionServiceTest {
     @Mock
     private TenantService tenantService;
 
+    @Mock
+    private PromotionCatalog promotionCatalog;
+
+    @Mock
+    private PromotionUsageCounter usageCounter;
+
     @InjectMocks
     private PromotionService promotionService;
 
@@ -233,6 +239,7 @@ class PromotionServiceTest {
     void shouldReturnZeroDiscountWhenUsageLimitExceeded() {
         // Given
         BigDecimal orderAmount = new BigDecimal("100.00");
+        when(usageCounter.isExhausted(any(), eq(usageLimitPromotion))).thenReturn(true);
 
         // When
         BigDecimal discount = promotionService.calculateDiscount(usageLimitPromotion, orderAmount);
@@ -269,22 +276,20 @@ class PromotionServiceTest {
     }
 
     @Test
-    @DisplayName("Should increment promotion usage")
-    void shouldIncrementPromotionUsage() {
+    @DisplayName("Should increment promotion usage through usage counter")
+    void shouldIncrementPromotionUsageThroughUsageCounter() {
         // Given
         Long promotionId = 1L;
-        percentagePromotion.setUsageCount(5);
-        
-        when(promotionRepository.findById(promotionId)).thenReturn(Optional.of(percentagePromotion));
-        when(promotionRepository.save(any(Promotion.class))).thenReturn(percentagePromotion);
+        when(usageCounter.tryIncrement(promotionId)).thenReturn(true);
         when(tenantService.getCurrentTenant()).thenReturn("tenant1");
 
         // When
-        promotionService.incrementUsage(promotionId);
+        boolean incremented = promotionService.incrementUsage(promotionId);
 
         // Then
-        verify(promotionRepository).findById(promotionId);
-        verify(promotionRepository).save(argThat(promotion -> promotion.getUsageCount() == 6));
+        assertThat(incremented).isTrue();
+        verify(usageCounter).tryIncrement(promotionId);
+        verify(promotionRepository, never()).save(any(Promotion.class));
     }
 
     @Test
@@ -0,0 +1,220 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.model.Promotion;
+import com.shoppingcart.multitenant.repository.PromotionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Promotion Usage Counter Tests")
+class PromotionUsageCounterTest {
+
+    @Mock
+    private PromotionRepository promotionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TenantRegistry tenantRegistry;
+
+    @InjectMocks
+    private PromotionUsageCounter usageCounter;
+
+    private Promotion limitedPromotion;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+
+        limitedPromotion = new Promotion();
+        limitedPromotion.setId(1L);
+        limitedPromotion.setUsageLimit(100);
+        limitedPromotion.setUsageCount(90);
+
+        lenient().when(tenantRegistry.isRegistered("tenant1")).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should enforce usage limit under concurrent redemptions")
+    void shouldEnforceUsageLimitUnderConcurrentRedemptions() throws Exception {
+        // Given
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(limitedPromotion));
+        usageCounter.tryIncrement(1L);
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            Callable<Boolean> redeem = () -> {
+                TenantContext.setCurrentTenant("tenant1");
+                try {
+                    return usageCounter.tryIncrement(1L);
+                } finally {
+                    TenantContext.clear();
+                }
+            };
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(redeem));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            accepted += result.get() ? 1 : 0;
+        }
+
+        // Then
+        assertThat(accepted).isEqualTo(9);
+        assertThat(usageCounter.getPendingUsage(1L)).isEqualTo(10);
+        verify(promotionRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should flush accumulated usage as one increment per promotion")
+    void shouldFlushAccumulatedUsageAsOneIncrementPerPromotion() {
+        // Given
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(limitedPromotion));
+        when(promotionRepository.findAllForUpdate(Set.of(1L))).thenReturn(List.of(limitedPromotion));
+        for (int i = 0; i < 5; i++) {
+            usageCounter.tryIncrement(1L);
+        }
+
+        // When
+        usageCounter.flush();
+        usageCounter.flush();
+
+        // Then
+        verify(promotionRepository, times(1)).findAllForUpdate(Set.of(1L));
+        assertThat(limitedPromotion.getUsageCount()).isEqualTo(95);
+        assertThat(usageCounter.getPendingUsage(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep usage pending when flush fails")
+    void shouldKeepUsagePendingWhenFlushFails() {
+        // Given
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(limitedPromotion));
+        when(promotionRepository.findAllForUpdate(any()))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenReturn(List.of(limitedPromotion));
+        usageCounter.tryIncrement(1L);
+        usageCounter.tryIncrement(1L);
+
+        // When
+        usageCounter.flush();
+
+        // Then
+        assertThat(usageCounter.getPendingUsage(1L)).isEqualTo(2);
+        usageCounter.flush();
+        assertThat(usageCounter.getPendingUsage(1L)).isZero();
+        verify(promotionRepository, times(2)).findAllForUpdate(Set.of(1L));
+        assertThat(limitedPromotion.getUsageCount()).isEqualTo(92);
+    }
+
+    @Test
+    @DisplayName("Should count unlimited usage towards a later limit only once it is flushed")
+    void shouldCountUnlimitedUsageOnceFlushed() {
+        // Given
+        Promotion unlimitedPromotion = new Promotion();
+        unlimitedPromotion.setId(2L);
+        unlimitedPromotion.setUsageCount(0);
+        when(promotionRepository.findById(2L)).thenReturn(Optional.of(unlimitedPromotion));
+        when(promotionRepository.findAllForUpdate(any()))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenReturn(List.of(unlimitedPromotion));
+        usageCounter.tryIncrement(2L);
+        usageCounter.tryIncrement(2L);
+
+        // When
+        usageCounter.flush();
+        usageCounter.flush();
+        usageCounter.updateLimit(2L, 3);
+
+        // Then
+        assertThat(unlimitedPromotion.getUsageCount()).isEqualTo(2);
+        assertThat(usageCounter.tryIncrement(2L)).isTrue();
+        assertThat(usageCounter.tryIncrement(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drop the counters of idle and unregistered tenants")
+    void shouldDropCountersOfIdleAndUnregisteredTenants() {
+        // Given
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(limitedPromotion));
+        when(promotionRepository.findAllForUpdate(Set.of(1L))).thenReturn(List.of(limitedPromotion));
+        usageCounter.tryIncrement(1L);
+        TenantContext.setCurrentTenant("tenant2");
+        usageCounter.tryIncrement(1L);
+        TenantContext.setCurrentTenant("tenant1");
+        ReflectionTestUtils.setField(usageCounter, "idleTtl", Duration.ZERO);
+
+        // When
+        usageCounter.flush();
+
+        // Then
+        verify(promotionRepository, times(1)).findAllForUpdate(Set.of(1L));
+        assertThat(limitedPromotion.getUsageCount()).isEqualTo(91);
+        assertThat(usageCounter.isExhausted("tenant1", limitedPromotion)).isFalse();
+        usageCounter.tryIncrement(1L);
+        verify(promotionRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should throw exception for unknown promotion")
+    void shouldThrowExceptionForUnknownPromotion() {
+        when(promotionRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> usageCounter.tryIncrement(999L))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Promotion not found with id: 999");
+    }
+
+    @Test
+    @DisplayName("Should report the promotion exhausted once the last redemption is reserved")
+    void shouldReportExhaustionFromCounter() {
+        // Given
+        when(promotionRepository.findById(1L)).thenReturn(Optional.of(limitedPromotion));
+        assertThat(usageCounter.isExhausted("tenant1", limitedPromotion)).isFalse();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            usageCounter.tryIncrement(1L);
+        }
+
+        // Then
+        assertThat(usageCounter.isExhausted("tenant1", limitedPromotion)).isTrue();
+        assertThat(usageCounter.isExhausted("tenant2", limitedPromotion)).isFalse();
+    }
+}
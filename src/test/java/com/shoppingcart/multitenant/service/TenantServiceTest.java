@@ -1,15 +1,20 @@
 package com.shoppingcart.multitenant.service;
 
 import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.config.TenantProperties;
+import com.shoppingcart.multitenant.config.TenantRegistry;
+import com.shoppingcart.multitenant.config.TenantRegistryProperties;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -18,6 +23,13 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DisplayName("Tenant Service Tests")
 class TenantServiceTest {
 
+    @Spy
+    private TenantRegistry tenantRegistry = new TenantRegistry(Map.of(
+        "default", new TenantProperties(),
+        "tenant1", new TenantProperties(),
+        "tenant2", new TenantProperties()
+    ), new TenantRegistryProperties());
+
     @InjectMocks
     private TenantService tenantService;
 
@@ -0,0 +1,190 @@
+package com.shoppingcart.multitenant.service;
+
+import com.shoppingcart.multitenant.config.TenantContext;
+import com.shoppingcart.multitenant.model.Cart;
+import com.shoppingcart.multitenant.model.CartItem;
+import com.shoppingcart.multitenant.model.Product;
+import com.shoppingcart.multitenant.repository.CartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Write-Behind Cart Store Tests")
+class WriteBehindCartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private WriteBehindCartStore cartStore;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("tenant1");
+
+        testProduct = new Product();
+        testProduct.setId(1L);
+        testProduct.setBasePrice(new BigDecimal("10.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should coalesce modifications into one write per flush")
+    void shouldCoalesceModificationsIntoOneWritePerFlush() {
+        // Given
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        // When
+        cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+        cartStore.modify("session1", () -> newCart("session1"), cart -> cart.getItems().get(0).setQuantity(2));
+        cartStore.modify("session1", () -> newCart("session1"), cart -> cart.getItems().get(0).setQuantity(3));
+        cartStore.flush();
+        cartStore.flush();
+
+        // Then
+        ArgumentCaptor<Cart> saved = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepository, times(1)).save(saved.capture());
+        assertThat(saved.getValue().getItems()).singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(3));
+    }
+
+    @Test
+    @DisplayName("Should carry generated ids over to the stored cart")
+    void shouldCarryGeneratedIdsOverToTheStoredCart() {
+        // Given
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+
+        // When
+        cartStore.flush();
+
+        // Then
+        Cart cart = cartStore.get("session1", () -> newCart("session1"));
+        assertThat(cart.getId()).isEqualTo(100L);
+        assertThat(cart.getItems().get(0).getId()).isEqualTo(200L);
+    }
+
+    @Test
+    @DisplayName("Should leave cart unchanged when modification fails")
+    void shouldLeaveCartUnchangedWhenModificationFails() {
+        // Given
+        Cart before = cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+
+        // When
+        assertThatThrownBy(() -> cartStore.modify("session1", () -> newCart("session1"), cart -> {
+            cart.getItems().clear();
+            throw new RuntimeException("Insufficient stock for requested quantity");
+        })).hasMessage("Insufficient stock for requested quantity");
+
+        // Then
+        assertThat(cartStore.get("session1", () -> newCart("session1"))).isSameAs(before);
+        assertThat(before.getItems()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should re-apply a modification that raced with another change to the cart")
+    void shouldReapplyModificationAfterConcurrentChange() {
+        // Given
+        cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+        int[] runs = {0};
+
+        // When
+        Cart result = cartStore.modify("session1", () -> newCart("session1"), cart -> {
+            if (runs[0]++ == 0) {
+                cartStore.modify("session1", () -> newCart("session1"),
+                    other -> other.getItems().get(0).setQuantity(5));
+            }
+            cart.setUserId("user1");
+        });
+
+        // Then
+        assertThat(runs[0]).isEqualTo(2);
+        assertThat(result.getUserId()).isEqualTo("user1");
+        assertThat(result.getItems()).singleElement()
+            .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(5));
+        assertThat(cartStore.get("session1", () -> newCart("session1"))).isSameAs(result);
+    }
+
+    @Test
+    @DisplayName("Should retry failed writes on next flush")
+    void shouldRetryFailedWritesOnNextFlush() {
+        // Given
+        when(cartRepository.save(any(Cart.class)))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+        cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+
+        // When
+        cartStore.flush();
+        cartStore.flush();
+
+        // Then
+        verify(cartRepository, times(3)).save(any(Cart.class));
+        assertThat(cartStore.get("session1", () -> newCart("session1")).getId()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("Should fall back when tenant store is full of unwritten carts")
+    void shouldFallBackWhenTenantStoreIsFullOfUnwrittenCarts() {
+        // Given
+        ReflectionTestUtils.setField(cartStore, "maxCartsPerTenant", 1);
+        cartStore.modify("session1", () -> newCart("session1"), cart -> addItem(cart, 1));
+
+        // When
+        Cart cart = cartStore.modify("session2", () -> newCart("session2"), c -> addItem(c, 1));
+
+        // Then
+        assertThat(cart).isNull();
+        TenantContext.setCurrentTenant("tenant2");
+        assertThat(cartStore.modify("session2", () -> newCart("session2"), c -> addItem(c, 1))).isNotNull();
+    }
+
+    private Cart newCart(String sessionId) {
+        Cart cart = new Cart();
+        cart.setSessionId(sessionId);
+        return cart;
+    }
+
+    private void addItem(Cart cart, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(testProduct);
+        item.setQuantity(quantity);
+        item.setUnitPrice(testProduct.getBasePrice());
+        item.setTotalPrice(testProduct.getBasePrice().multiply(BigDecimal.valueOf(quantity)));
+        cart.getItems().add(item);
+    }
+
+    private Cart withIds(Cart cart) {
+        Cart saved = WriteBehindCartStore.copy(cart);
+        saved.setId(100L);
+        saved.getItems().forEach(item -> item.setId(200L));
+        return saved;
+    }
+}
@@ -0,0 +1,127 @@
+-- Tenant schema for the load generator's H2 stand-in databases (MODE=MySQL), run on every new
+-- connection through INIT=RUNSCRIPT. Mirrors the tables Hibernate generates for the entities.
+
+create table if not exists products (
+    id bigint not null auto_increment,
+    active bit not null,
+    basePrice decimal(19,2) not null,
+    brand varchar(255),
+    category varchar(255),
+    createdAt datetime(6) not null,
+    description text,
+    name varchar(255) not null,
+    sku varchar(255) not null,
+    stockQuantity integer not null,
+    updatedAt datetime(6) not null,
+    primary key (id)
+);
+
+-- MySQL has no sequences, so Hibernate keeps the pooled product id sequence in a one-row table.
+create table if not exists products_seq (
+    next_val bigint
+);
+
+insert into products_seq select 1 where not exists (select 1 from products_seq);
+
+create table if not exists product_images (
+    product_id bigint not null,
+    image_url varchar(255)
+);
+
+create table if not exists prices (
+    id bigint not null auto_increment,
+    active bit not null,
+    createdAt datetime(6) not null,
+    customer_group varchar(255),
+    min_quantity integer,
+    price decimal(19,2) not null,
+    price_type varchar(255),
+    updatedAt datetime(6) not null,
+    valid_from datetime(6),
+    valid_to datetime(6),
+    price_book_id bigint,
+    product_id bigint not null,
+    primary key (id)
+);
+
+create table if not exists prices_seq (
+    next_val bigint
+);
+
+insert into prices_seq select 1 where not exists (select 1 from prices_seq);
+
+create table if not exists price_books (
+    id bigint not null auto_increment,
+    activated_at datetime(6),
+    createdAt datetime(6) not null,
+    name varchar(255) not null,
+    price_count bigint not null,
+    status enum ('IMPORTING','STAGED','ACTIVE','RETIRED','FAILED') not null,
+    primary key (id)
+);
+
+create table if not exists promotions (
+    id bigint not null auto_increment,
+    active bit not null,
+    code varchar(255) not null,
+    createdAt datetime(6) not null,
+    description text,
+    discount_type enum ('PERCENTAGE','FIXED_AMOUNT','BUY_X_GET_Y') not null,
+    discount_value decimal(19,2) not null,
+    max_discount_amount decimal(19,2),
+    min_order_amount decimal(19,2),
+    name varchar(255) not null,
+    updatedAt datetime(6) not null,
+    usage_count integer,
+    usage_limit integer,
+    valid_from datetime(6) not null,
+    valid_to datetime(6) not null,
+    primary key (id)
+);
+
+create table if not exists promotion_products (
+    promotion_id bigint not null,
+    product_id bigint not null
+);
+
+create table if not exists promotion_categories (
+    promotion_id bigint not null,
+    category varchar(255)
+);
+
+create table if not exists carts (
+    id bigint not null auto_increment,
+    createdAt datetime(6) not null,
+    discount_amount decimal(19,2),
+    session_id varchar(255) not null,
+    subtotal decimal(19,2),
+    total_amount decimal(19,2),
+    updatedAt datetime(6) not null,
+    user_id varchar(255),
+    applied_promotion_id bigint,
+    primary key (id)
+);
+
+create table if not exists cart_items (
+    id bigint not null auto_increment,
+    createdAt datetime(6) not null,
+    quantity integer not null,
+    total_price decimal(19,2) not null,
+    unit_price decimal(19,2) not null,
+    updatedAt datetime(6) not null,
+    cart_id bigint not null,
+    product_id bigint not null,
+    primary key (id)
+);
+
+create table if not exists carts_seq (
+    next_val bigint
+);
+
+insert into carts_seq select 1 where not exists (select 1 from carts_seq);
+
+create table if not exists cart_items_seq (
+    next_val bigint
+);
+
+insert into cart_items_seq select 1 where not exists (select 1 from cart_items_seq);